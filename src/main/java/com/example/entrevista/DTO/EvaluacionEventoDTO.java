@@ -0,0 +1,17 @@
+package com.example.entrevista.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Evento de la evaluación en streaming.
+ * tipo: "criterio", "fortaleza", "oportunidad_mejora" o "evaluacion" (EvaluacionResponse final).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EvaluacionEventoDTO {
+    private String tipo;
+    private Object datos;
+}
@@ -14,4 +14,5 @@ public class EvaluacionRequest {
     private String puesto; // Para contexto de la evaluación
     private Long idPostulacion; // Para asociar con la postulación
     private int valorPregunta;
+    private Long preguntaId; // Para asociar con la pregunta evaluada
 }
@@ -0,0 +1,20 @@
+package com.example.entrevista.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de un listado con paginación por cursor (keyset).
+ * siguienteCursor es opaco: el cliente lo reenvía tal cual para pedir la página siguiente; es null en la última.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaResponse<T> {
+    private List<T> elementos;
+    private String siguienteCursor;
+    private boolean hayMas;
+}
@@ -0,0 +1,64 @@
+package com.example.entrevista.config;
+
+import com.example.entrevista.util.PlanificadorLlm;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Modo de ejecución de los endpoints que dependen del LLM (evaluar y generar preguntas).
+ *
+ * app.ejecucion.modo=plataforma (por defecto): el trabajo bloqueante corre en un pool elástico acotado
+ * app.ejecucion.modo=virtual: el trabajo bloqueante corre en hilos virtuales (requiere Java 21, perfil maven java21)
+ */
+@Configuration
+public class EjecucionConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(EjecucionConfig.class);
+
+    public static final String MODO_VIRTUAL = "virtual";
+
+    @Value("${app.ejecucion.modo:plataforma}")
+    private String modo;
+
+    // Se expone solo el Scheduler: un bean Executor desactivaría el applicationTaskExecutor de Spring Boot
+    @Bean(destroyMethod = "dispose")
+    public Scheduler llmScheduler() {
+        if (MODO_VIRTUAL.equalsIgnoreCase(modo)) {
+            ExecutorService virtual = crearExecutorVirtual();
+            if (virtual != null) {
+                logger.info("Endpoints LLM ejecutándose en hilos virtuales");
+                return Schedulers.fromExecutorService(virtual, "llm-virtual");
+            }
+            logger.warn("Se solicitó el modo virtual pero la JVM no soporta hilos virtuales; se usarán hilos de plataforma");
+        }
+        return Schedulers.newBoundedElastic(
+            Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "llm-bloqueante");
+    }
+
+    // Planificador por upstream: compartido por todos los servicios que llaman a OpenAI
+    @Bean
+    public PlanificadorLlm openAIPlanificador(@Value("${openai.max-concurrencia:64}") int maxConcurrencia,
+                                              @Value("${openai.limites.peticiones-por-minuto:500}") int peticionesPorMinuto,
+                                              @Value("${openai.limites.tokens-por-minuto:200000}") long tokensPorMinuto,
+                                              MeterRegistry meterRegistry) {
+        return new PlanificadorLlm("openai", maxConcurrencia, peticionesPorMinuto, tokensPorMinuto, meterRegistry);
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() solo existe desde Java 21; el proyecto compila con 17
+    private ExecutorService crearExecutorVirtual() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
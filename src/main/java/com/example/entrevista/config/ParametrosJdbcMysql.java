@@ -0,0 +1,74 @@
+package com.example.entrevista.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parámetros de Connector/J que la capa de persistencia necesita en MySQL y que la URL de
+ * spring.datasource.url puede no traer:
+ * - useCursorFetch=true: sin él el driver ignora el fetch size y carga el resultado completo en memoria,
+ *   así que las consultas consumidas como Stream (p. ej. el informe de salud) no leerían por bloques.
+ * - rewriteBatchedStatements=true: sin él los batch JDBC de insertarEnLote se envían igualmente una fila
+ *   por ida y vuelta; con él el driver los reescribe como INSERT multi-fila.
+ *
+ * Se añaden a la URL al arrancar si faltan; un valor explícito en la URL se respeta. Otras bases de datos
+ * (H2 en las pruebas) no se tocan.
+ */
+@Component
+public class ParametrosJdbcMysql implements BeanPostProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParametrosJdbcMysql.class);
+
+    private static final Map<String, String> PARAMETROS = new LinkedHashMap<>();
+
+    static {
+        PARAMETROS.put("useCursorFetch", "true");
+        PARAMETROS.put("rewriteBatchedStatements", "true");
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSourceProperties propiedades && propiedades.getUrl() != null) {
+            String url = completarUrl(propiedades.getUrl());
+            if (!url.equals(propiedades.getUrl())) {
+                logger.info("URL JDBC de MySQL completada con los parámetros {}", PARAMETROS.keySet());
+                propiedades.setUrl(url);
+            }
+        }
+        return bean;
+    }
+
+    static String completarUrl(String url) {
+        if (!url.startsWith("jdbc:mysql:")) {
+            return url;
+        }
+        StringBuilder completa = new StringBuilder(url);
+        boolean tieneConsulta = url.indexOf('?') >= 0;
+        for (Map.Entry<String, String> parametro : PARAMETROS.entrySet()) {
+            if (!contieneParametro(url, parametro.getKey())) {
+                completa.append(tieneConsulta ? '&' : '?').append(parametro.getKey()).append('=').append(parametro.getValue());
+                tieneConsulta = true;
+            }
+        }
+        return completa.toString();
+    }
+
+    private static boolean contieneParametro(String url, String nombre) {
+        int consulta = url.indexOf('?');
+        if (consulta < 0) {
+            return false;
+        }
+        for (String par : url.substring(consulta + 1).split("&")) {
+            if (par.split("=", 2)[0].equalsIgnoreCase(nombre)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
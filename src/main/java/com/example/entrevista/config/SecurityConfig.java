@@ -1,6 +1,7 @@
 package com.example.entrevista.config;
 
 import com.example.entrevista.filter.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -60,6 +61,8 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))            .authorizeHttpRequests(auth -> auth
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                // Los endpoints asíncronos (Mono/Flux) ya fueron autorizados en el despacho original
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/auth/**").permitAll()
                 
                 // Empresas - Gestión de convocatorias y candidatos
@@ -74,13 +77,17 @@ public class SecurityConfig {
                 
                 // Usuarios - Postulaciones y entrevistas
                 .requestMatchers(HttpMethod.GET, "/api/convocatorias/activas").hasRole("USUARIO")
+                .requestMatchers(HttpMethod.GET, "/api/convocatorias/activas/pagina").hasRole("USUARIO")
                 .requestMatchers(HttpMethod.POST, "/api/postulaciones").hasRole("USUARIO")
                 .requestMatchers(HttpMethod.GET, "/api/postulaciones/usuario/**").hasRole("USUARIO")
                 .requestMatchers(HttpMethod.PATCH, "/api/postulaciones/*/iniciar-entrevista").hasRole("USUARIO") // NUEVO
                 .requestMatchers(HttpMethod.PATCH, "/api/postulaciones/*/completar-entrevista").hasRole("USUARIO") // NUEVO
                 .requestMatchers(HttpMethod.POST, "/api/preguntas/generar").hasRole("USUARIO")
+                .requestMatchers(HttpMethod.POST, "/api/preguntas/generar/stream").hasRole("USUARIO")
                 .requestMatchers(HttpMethod.GET, "/api/preguntas/postulacion/**").hasRole("USUARIO")
                 .requestMatchers(HttpMethod.POST, "/api/evaluaciones/evaluar").hasRole("USUARIO")
+                .requestMatchers(HttpMethod.POST, "/api/evaluaciones/evaluar/stream").hasRole("USUARIO")
+                .requestMatchers(HttpMethod.POST, "/api/evaluaciones/evaluar-lote").hasRole("USUARIO")
                 .requestMatchers(HttpMethod.GET, "/api/evaluaciones/mis-resultados/**").hasRole("USUARIO")
                 .requestMatchers(HttpMethod.PATCH, "/api/postulaciones/*/marcar-preguntas-generadas").hasRole("USUARIO") // NUEVO
                 
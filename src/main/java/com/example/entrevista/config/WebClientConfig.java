@@ -1,16 +1,43 @@
 package com.example.entrevista.config;
 
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 @Configuration
 public class WebClientConfig {
 
+    // Pool dedicado para OpenAI: las llamadas al LLM son largas y no deben competir con otros clientes
     @Bean
-    public WebClient webClient() {
+    public WebClient openAIWebClient(@Value("${openai.base-url:https://api.openai.com/v1}") String baseUrl,
+                                     @Value("${openai.http.max-conexiones:100}") int maxConexiones,
+                                     @Value("${openai.http.max-pendientes:1000}") int maxPendientes,
+                                     @Value("${openai.http.espera-conexion:10s}") Duration esperaConexion,
+                                     @Value("${openai.http.max-inactividad:30s}") Duration maxInactividad,
+                                     @Value("${openai.http.timeout-conexion:5s}") Duration timeoutConexion) {
+        ConnectionProvider proveedor = ConnectionProvider.builder("openai")
+            .maxConnections(maxConexiones)
+            .pendingAcquireMaxCount(maxPendientes)
+            .pendingAcquireTimeout(esperaConexion)
+            .maxIdleTime(maxInactividad)
+            .maxLifeTime(Duration.ofMinutes(5))
+            .evictInBackground(Duration.ofSeconds(30))
+            .build();
+
+        HttpClient httpClient = HttpClient.create(proveedor)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) timeoutConexion.toMillis())
+            .compress(true);
+
         return WebClient.builder()
-            .baseUrl("https://api.openai.com/v1")
+            .baseUrl(baseUrl)
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
             .build();
     }
 }
@@ -3,112 +3,110 @@ package com.example.entrevista.controller;
 import com.example.entrevista.DTO.AuthRequest;
 import com.example.entrevista.DTO.AuthResponse;
 import com.example.entrevista.util.JwtUtil;
-import com.example.entrevista.service.CustomUserDetailsService;
-import com.example.entrevista.model.Usuario;
-import com.example.entrevista.model.Empresa;
+import com.example.entrevista.service.DirectorioCuentasService;
+import com.example.entrevista.security.AnilloClavesJwt;
+import com.example.entrevista.security.LimitadorIntentosLogin;
+import com.example.entrevista.security.LoginSaturadoException;
 import com.example.entrevista.security.UserPrincipal;
+import com.example.entrevista.security.VerificadorCredenciales;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
 
+    // Verificación BCrypt en un pool acotado (429 si está saturado)
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private VerificadorCredenciales verificadorCredenciales;
+
+    @Autowired
+    private LimitadorIntentosLogin limitadorIntentos;
     
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private DirectorioCuentasService directorioCuentas;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private AnilloClavesJwt anilloClaves;
+
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody AuthRequest request) {
+    public ResponseEntity<?> login(@RequestBody AuthRequest request, HttpServletRequest httpRequest) {
         if (request.getEmail() == null || request.getPassword() == null) {
             return ResponseEntity.badRequest().body(Map.of("error", "Correo y contraseña son obligatorios"));
         }
+        // IP del cliente solo si server.forward-headers-strategy está configurado detrás de un proxy
+        String ip = httpRequest.getRemoteAddr();
+        // Demasiados fallos recientes: se rechaza antes de gastar CPU en BCrypt
+        if (limitadorIntentos.bloqueado(request.getEmail(), ip)) {
+            return ResponseEntity.status(429)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(limitadorIntentos.getVentana().toSeconds()))
+                .body(Map.of("error", "Demasiados intentos fallidos, inténtalo más tarde"));
+        }
         try {
-            authenticationManager.authenticate(
+            verificadorCredenciales.autenticar(
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
             );
-            UserDetails userDetails = userDetailsService.loadUserByUsername(request.getEmail());
-            System.out.println("userDetails: " + userDetails);
-            
-            // Get the full authority including "ROLE_" prefix
-            String authority = userDetails.getAuthorities().iterator().next().getAuthority();
-            
-            // Obtener información adicional del usuario o empresa
-            Usuario usuario = userDetailsService.findUsuarioByEmail(request.getEmail());
-            Empresa empresa = null;
-            
-            String token;
-            AuthResponse response;
-            
-            if (usuario != null) {
-                // Es un usuario
-                token = jwtUtil.generateToken(
-                    userDetails.getUsername(), 
-                    authority,
-                    usuario.getId(),
-                    usuario.getNombre(),
-                    usuario.getApellidoPaterno(),
-                    usuario.getApellidoMaterno()
-                );
-                response = new AuthResponse(
-                    token,
-                    "USUARIO",
-                    usuario.getId(),
-                    usuario.getNombre(),
-                    usuario.getApellidoPaterno(),
-                    usuario.getApellidoMaterno(),
-                    usuario.getEmail()
-                );
-            } else {
-                // Es una empresa
-                empresa = userDetailsService.findEmpresaByEmail(request.getEmail());
-                if (empresa != null) {
-                    token = jwtUtil.generateToken(
-                        userDetails.getUsername(), 
-                        authority,
-                        empresa.getId(),
-                        empresa.getNombre(),
-                        null, // Las empresas no tienen apellidos
-                        null
-                    );
-                    response = new AuthResponse(
-                        token,
-                        "EMPRESA",
-                        empresa.getId(),
-                        empresa.getNombre(),
-                        null, // Las empresas no tienen apellidos
-                        null,
-                        empresa.getEmail()
-                    );
-                } else {
-                    // Fallback al método original
-                    token = jwtUtil.generateToken(userDetails.getUsername(), authority);
-                    response = new AuthResponse(token);
-                }
+            limitadorIntentos.registrarExito(request.getEmail());
+
+            // Misma entrada del directorio que acaba de usar la autenticación: no se vuelve a leer la entidad
+            DirectorioCuentasService.Cuenta cuenta = directorioCuentas.buscar(request.getEmail());
+            if (cuenta == null) {
+                // Cuenta eliminada entre la verificación y la emisión del token
+                return ResponseEntity.status(401).body(Map.of("error", "Credenciales inválidas"));
             }
-            
-            System.out.println("token generado: " + token);
+
+            // Las empresas no tienen apellidos
+            String token = jwtUtil.generateToken(
+                cuenta.email(),
+                cuenta.autoridad(),
+                cuenta.id(),
+                cuenta.nombre(),
+                cuenta.apellidoPaterno(),
+                cuenta.apellidoMaterno()
+            );
+            AuthResponse response = new AuthResponse(
+                token,
+                cuenta.esUsuario() ? "USUARIO" : "EMPRESA",
+                cuenta.id(),
+                cuenta.nombre(),
+                cuenta.apellidoPaterno(),
+                cuenta.apellidoMaterno(),
+                cuenta.email()
+            );
             return ResponseEntity.ok(response);
+        } catch (LoginSaturadoException e) {
+            return ResponseEntity.status(429)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", "Servicio de inicio de sesión saturado, inténtalo de nuevo"));
         } catch (AuthenticationException e) {
+            limitadorIntentos.registrarFallo(request.getEmail(), ip);
             System.out.println("Error de autenticación: " + e.getMessage());
             return ResponseEntity.status(401).body(Map.of("error", "Credenciales inválidas"));
         }
     }
     
+    // Claves públicas de verificación (JWKS); vacío mientras se firme solo con HMAC
+    @GetMapping("/jwks")
+    public ResponseEntity<?> jwks() {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES))
+            .body(anilloClaves.jwks());
+    }
+
     @GetMapping("/me")
     public ResponseEntity<?> getCurrentUser() {
         try {
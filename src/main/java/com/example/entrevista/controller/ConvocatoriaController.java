@@ -8,6 +8,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/convocatorias")
@@ -44,7 +45,21 @@ public class ConvocatoriaController {
     public ResponseEntity<List<Convocatoria>> listarActivas() {
         List<Convocatoria> convocatorias = convocatoriaService.listarActivas();
         return ResponseEntity.ok(convocatorias);
-    }    // Solo empresas pueden eliminar sus convocatorias
+    }
+
+    // Versión paginada por cursor: ?cursor=<siguienteCursor de la página anterior>&limite=20
+    @GetMapping("/activas/pagina")
+    @PreAuthorize("hasRole('USUARIO')")
+    public ResponseEntity<?> paginarActivas(@RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer limite) {
+        try {
+            return ResponseEntity.ok(convocatoriaService.paginarActivas(cursor, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Solo empresas pueden eliminar sus convocatorias
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('EMPRESA')")
     public ResponseEntity<?> eliminar(@PathVariable Long id) {
@@ -155,7 +155,8 @@ public class DiagnosticoController {
     @PreAuthorize("hasRole('EMPRESA')")
     public ResponseEntity<?> metricasCalidad() {
         try {
-            Map<String, Object> reporte = diagnosticoService.reporteSaludSistema();
+            // Solo se necesitan los totales: sin lista de detalle
+            Map<String, Object> reporte = diagnosticoService.reporteSaludSistema(0);
             
             // Extraer métricas clave
             Map<String, Object> metricas = Map.of(
@@ -14,9 +14,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.util.*;
 import java.util.Optional;
@@ -38,13 +43,21 @@ public class EvaluacionController {
     
     @Autowired
     private PreguntaRepository preguntaRepository;    
+
+    @Autowired
+    private Scheduler llmScheduler;
     
     // Solo usuarios pueden evaluar sus respuestas
+    // La llamada bloqueante al LLM corre en el scheduler configurado (hilos virtuales en modo virtual)
     @PostMapping("/evaluar")
     @PreAuthorize("hasRole('USUARIO')")
-    public ResponseEntity<?> evaluarRespuesta(@RequestBody Map<String, Object> requestMap) {
+    public Mono<ResponseEntity<?>> evaluarRespuesta(@RequestBody Map<String, Object> requestMap) {
         logger.info("Recibida solicitud de evaluación: {}", requestMap);
-        
+        return Mono.<ResponseEntity<?>>fromCallable(() -> procesarEvaluacion(requestMap))
+            .subscribeOn(llmScheduler);
+    }
+
+    private ResponseEntity<?> procesarEvaluacion(Map<String, Object> requestMap) {
         try {
             // Validar que se incluya preguntaId y answer
             if (!requestMap.containsKey("preguntaId")) {
@@ -92,6 +105,98 @@ public class EvaluacionController {
         }
     }
     
+    // Variante en streaming (SSE): puntajes y comentarios parciales a medida que el LLM los produce
+    @PostMapping(value = "/evaluar/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('USUARIO')")
+    public Flux<ServerSentEvent<Object>> evaluarRespuestaStream(@RequestBody Map<String, Object> requestMap) {
+        logger.info("Recibida solicitud de evaluación en streaming: {}", requestMap);
+        return Mono.fromCallable(() -> prepararSolicitud(requestMap))
+            .subscribeOn(llmScheduler)
+            .flatMapMany(evaluacionService::evaluarPreguntaStream)
+            .map(evento -> ServerSentEvent.<Object>builder(evento.getDatos()).event(evento.getTipo()).build())
+            .onErrorResume(e -> {
+                logger.error("Error en la evaluación en streaming: {}", e.getMessage());
+                return Flux.just(ServerSentEvent.<Object>builder(EvaluacionResponse.error("Error al procesar la evaluación: " + e.getMessage()))
+                    .event("error")
+                    .build());
+            });
+    }
+
+    private EvaluacionRequest prepararSolicitud(Map<String, Object> requestMap) {
+        if (!requestMap.containsKey("preguntaId")) {
+            throw new IllegalArgumentException("El campo preguntaId es obligatorio");
+        }
+        if (!requestMap.containsKey("answer")) {
+            throw new IllegalArgumentException("El campo answer es obligatorio");
+        }
+        EvaluacionRequest request = convertToEvaluacionRequest(requestMap);
+        Map<String, String> validationErrors = validateRequest(request);
+        if (!validationErrors.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", validationErrors.values()));
+        }
+        return request;
+    }
+
+    // Evalúa todas las respuestas de una postulación con una (o pocas) llamadas al LLM
+    @PostMapping("/evaluar-lote")
+    @PreAuthorize("hasRole('USUARIO')")
+    public Mono<ResponseEntity<?>> evaluarLote(@RequestBody Map<String, Object> requestMap) {
+        logger.info("Recibida solicitud de evaluación en lote para postulación {}", requestMap.get("postulacionId"));
+        return Mono.<ResponseEntity<?>>fromCallable(() -> procesarEvaluacionLote(requestMap))
+            .subscribeOn(llmScheduler);
+    }
+
+    private ResponseEntity<?> procesarEvaluacionLote(Map<String, Object> requestMap) {
+        try {
+            if (!(requestMap.get("postulacionId") instanceof Number)) {
+                return ResponseEntity.badRequest().body(Map.of("error", "El campo postulacionId es obligatorio"));
+            }
+            if (!(requestMap.get("respuestas") instanceof List<?> respuestas) || respuestas.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "El campo respuestas debe ser una lista no vacía"));
+            }
+
+            Long postulacionId = ((Number) requestMap.get("postulacionId")).longValue();
+            List<EvaluacionRequest> requests = new ArrayList<>();
+            for (Object item : respuestas) {
+                if (!(item instanceof Map<?, ?> itemMap) || !itemMap.containsKey("preguntaId") || !itemMap.containsKey("answer")) {
+                    return ResponseEntity.badRequest().body(Map.of("error", "Cada respuesta debe incluir preguntaId y answer"));
+                }
+
+                @SuppressWarnings("unchecked")
+                EvaluacionRequest request = convertToEvaluacionRequest((Map<String, Object>) itemMap);
+                if (!postulacionId.equals(request.getIdPostulacion())) {
+                    return ResponseEntity.badRequest().body(Map.of("error",
+                        "La pregunta con ID " + request.getPreguntaId() + " no pertenece a la postulación " + postulacionId));
+                }
+
+                Map<String, String> validationErrors = validateRequest(request);
+                if (!validationErrors.isEmpty()) {
+                    logger.warn("Respuesta inválida en lote para pregunta {}: {}", request.getPreguntaId(), validationErrors);
+                    return ResponseEntity.badRequest().body(Map.of("preguntaId", request.getPreguntaId(), "errores", validationErrors));
+                }
+                requests.add(request);
+            }
+
+            List<EvaluacionResponse> evaluaciones = evaluacionService.evaluarLote(postulacionId, requests);
+            long exitosas = evaluaciones.stream().filter(EvaluacionResponse::isSuccess).count();
+            logger.info("Evaluación en lote de postulación {}: {}/{} exitosas", postulacionId, exitosas, evaluaciones.size());
+
+            return ResponseEntity.ok(Map.of(
+                "postulacionId", postulacionId,
+                "total", evaluaciones.size(),
+                "exitosas", exitosas,
+                "evaluaciones", evaluaciones
+            ));
+        } catch (IllegalArgumentException e) {
+            logger.error("Error de validación en lote: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", "Error de validación: " + e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error al evaluar respuestas en lote: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Error al procesar la evaluación en lote: " + e.getMessage()));
+        }
+    }
+    
     private EvaluacionRequest convertToEvaluacionRequest(Map<String, Object> requestMap) {
         EvaluacionRequest request = new EvaluacionRequest();
         
@@ -108,7 +213,7 @@ public class EvaluacionController {
             preguntaId = (Long) requestMap.get("preguntaId");
         }
         
-        Optional<Pregunta> preguntaOpt = preguntaRepository.findById(preguntaId);
+        Optional<Pregunta> preguntaOpt = preguntaRepository.findConConvocatoriaById(preguntaId);
         if (!preguntaOpt.isPresent()) {
             throw new IllegalArgumentException("La pregunta con ID " + preguntaId + " no existe");
         }
@@ -116,6 +221,7 @@ public class EvaluacionController {
         Pregunta pregunta = preguntaOpt.get();
         
         // Establecer la pregunta
+        request.setPreguntaId(pregunta.getId());
         request.setQuestion(pregunta.getTextoPregunta());
         
         // Establecer el valor de la pregunta usando el score guardado en la entidad
@@ -269,6 +375,20 @@ public class EvaluacionController {
         }
     }
 
+    // Versión paginada por cursor de las evaluaciones de la empresa: ?cursor=...&limite=20
+    @GetMapping("/por-entrevista/{entrevistaId}/pagina")
+    @PreAuthorize("hasRole('EMPRESA')")
+    public ResponseEntity<?> paginarEvaluacionesPorEntrevista(
+            @PathVariable Long entrevistaId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        try {
+            return ResponseEntity.ok(evaluacionService.paginarEvaluacionesPorEntrevista(entrevistaId, cursor, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Empresas pueden ver evaluaciones de una postulación específica
     @GetMapping("/postulacion/{postulacionId}")
     @PreAuthorize("hasRole('EMPRESA')")
@@ -39,6 +39,20 @@ public class PostulacionController {
         return ResponseEntity.ok(postulacionService.listarPorConvocatoria(convocatoriaId));
     }
 
+    // Versión paginada por cursor: ?cursor=<siguienteCursor de la página anterior>&limite=20
+    @GetMapping("/convocatoria/{convocatoriaId}/pagina")
+    @PreAuthorize("hasRole('EMPRESA')")
+    public ResponseEntity<?> paginarPorConvocatoria(
+            @PathVariable Long convocatoriaId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        try {
+            return ResponseEntity.ok(postulacionService.paginarPorConvocatoria(convocatoriaId, cursor, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Usuarios pueden ver sus postulaciones, empresas pueden ver postulaciones de sus convocatorias
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USUARIO') or hasRole('EMPRESA')")
@@ -78,6 +92,25 @@ public class PostulacionController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    @GetMapping("/estado/{estado}/pagina")
+    @PreAuthorize("hasRole('EMPRESA')")
+    public ResponseEntity<?> paginarPorEstado(
+            @PathVariable String estado,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        EstadoPostulacion estadoEnum;
+        try {
+            estadoEnum = EstadoPostulacion.valueOf(estado.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Estado no válido: " + estado));
+        }
+        try {
+            return ResponseEntity.ok(postulacionService.paginarPorEstado(estadoEnum, cursor, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
     
     @GetMapping("/usuario/{usuarioId}/estado/{estado}")
     @PreAuthorize("hasRole('USUARIO')") // Agregado
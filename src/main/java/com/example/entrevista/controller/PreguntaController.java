@@ -4,11 +4,17 @@ import com.example.entrevista.DTO.*;
 import com.example.entrevista.service.PreguntaService;
 import com.example.entrevista.model.Pregunta;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @RestController
 @RequestMapping("/api/preguntas")
@@ -18,19 +24,39 @@ public class PreguntaController {
     private PreguntaService preguntaService;    // Solo usuarios pueden generar preguntas para sus entrevistas
     @PostMapping("/generar")
     @PreAuthorize("hasRole('USUARIO')")
-    public ResponseEntity<?> generarPreguntas(@RequestBody PreguntaRequest request) {
-        try {
-            // Validación de campos obligatorios
-            if (request.getIdPostulacion() == null) {
-                return ResponseEntity.badRequest().body("El ID de postulación es obligatorio");
-            }
-            
-            PreguntaResponse response = preguntaService.generarPreguntas(request);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest()
-                .body("Error al generar preguntas: " + e.getMessage());
+    public Mono<ResponseEntity<?>> generarPreguntas(@RequestBody PreguntaRequest request) {
+        // Validación de campos obligatorios
+        if (request.getIdPostulacion() == null) {
+            return Mono.just(ResponseEntity.badRequest().body("El ID de postulación es obligatorio"));
+        }
+        
+        // La respuesta se completa de forma asíncrona sin ocupar el hilo del servlet
+        return preguntaService.generarPreguntas(request)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .onErrorResume(e -> Mono.just(ResponseEntity.badRequest()
+                .body("Error al generar preguntas: " + e.getMessage())));
+    }
+
+    // Variante en streaming (SSE): cada pregunta se envía en cuanto el LLM termina de escribirla
+    @PostMapping(value = "/generar/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('USUARIO')")
+    public Flux<ServerSentEvent<Object>> generarPreguntasStream(@RequestBody PreguntaRequest request) {
+        if (request.getIdPostulacion() == null) {
+            return Flux.just(evento("error", Map.of("error", "El ID de postulación es obligatorio")));
         }
+
+        AtomicInteger total = new AtomicInteger();
+        return preguntaService.generarPreguntasStream(request)
+            .map(pregunta -> ServerSentEvent.<Object>builder(pregunta)
+                .id(String.valueOf(total.incrementAndGet()))
+                .event("pregunta")
+                .build())
+            .concatWith(Mono.fromSupplier(() -> evento("fin", Map.of("total", total.get()))))
+            .onErrorResume(e -> Flux.just(evento("error", Map.of("error", "Error al generar preguntas: " + e.getMessage()))));
+    }
+
+    private ServerSentEvent<Object> evento(String tipo, Object datos) {
+        return ServerSentEvent.<Object>builder(datos).event(tipo).build();
     }
 
     // Solo usuarios pueden ver sus preguntas por postulación
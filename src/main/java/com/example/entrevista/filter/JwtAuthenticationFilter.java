@@ -4,87 +4,116 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import com.example.entrevista.util.JwtUtil;
+import com.example.entrevista.model.Rol;
+import com.example.entrevista.security.CacheTokensJwt;
+import com.example.entrevista.security.TokenJwtVerificado;
 import com.example.entrevista.security.UserPrincipal;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.logging.Logger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Autentica cada petición con el JWT del header Authorization.
+ *
+ * Es el camino más frecuente de la aplicación: no escribe logs a nivel INFO, las autoridades de cada
+ * rol se crean una sola vez y la traza DEBUG es opcional y por muestreo (app.seguridad.traza.cada).
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private static final Logger logger = Logger.getLogger(JwtAuthenticationFilter.class.getName());
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
+    private static final String PREFIJO_BEARER = "Bearer ";
+
+    // Autoridades por rol, aceptando el rol con o sin el prefijo ROLE_ que usa Spring Security
+    private static final Map<String, List<GrantedAuthority>> AUTORIDADES_POR_ROL = new HashMap<>();
+
+    static {
+        for (Rol rol : Rol.values()) {
+            List<GrantedAuthority> autoridades = List.of(new SimpleGrantedAuthority("ROLE_" + rol.name()));
+            AUTORIDADES_POR_ROL.put(rol.name(), autoridades);
+            AUTORIDADES_POR_ROL.put("ROLE_" + rol.name(), autoridades);
+        }
+    }
+
+    // Un solo parseo por token; las peticiones repetidas con el mismo token no vuelven a verificar la firma
     @Autowired
-    private JwtUtil jwtUtil;
+    private CacheTokensJwt cacheTokensJwt;
+
+    // Con DEBUG activo, traza una de cada N peticiones (0 = ninguna)
+    @Value("${app.seguridad.traza.cada:0}")
+    private int trazaCada;
+
+    private final AtomicLong peticiones = new AtomicLong();
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String header = request.getHeader("Authorization");
-        logger.info("=== JWT FILTER DEBUG ===");
-        logger.info("Request to: " + request.getRequestURI());
-        logger.info("Authorization header: " + (header != null ? "Present" : "Missing"));
-        
-        if (header != null && header.startsWith("Bearer ")) {
-            String token = header.substring(7);
-            try {
-                String username = jwtUtil.extractUsername(token);
-                String role = jwtUtil.extractRole(token);
-                Long userId = jwtUtil.extractUserId(token);
-                String nombre = jwtUtil.extractNombre(token);
-                String apellidoPaterno = jwtUtil.extractApellidoPaterno(token);
-                String apellidoMaterno = jwtUtil.extractApellidoMaterno(token);
-                String userType = jwtUtil.extractUserType(token);
-                
-                logger.info("JWT Token username: " + username);
-                logger.info("JWT Token role: " + role);
-                logger.info("JWT Token userId: " + userId);
-                logger.info("JWT Token nombre: " + nombre);
-                logger.info("JWT Token userType: " + userType);
-                
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    // Important: Add ROLE_ prefix for Spring Security compatibility
-                    String authorityName = role.startsWith("ROLE_") ? role : "ROLE_" + role;
-                    SimpleGrantedAuthority authority = new SimpleGrantedAuthority(authorityName);
-                    logger.info("Created authority: " + authority.getAuthority());
-                    
-                    // Create a custom authentication principal that includes user info
-                    UserPrincipal userPrincipal = new UserPrincipal(username, userId, nombre, apellidoPaterno, apellidoMaterno, userType);
-                    
-                    // Create authentication with the role properly formatted
-                    UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                            userPrincipal, null, Collections.singletonList(authority));
-                    
-                    auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(auth);
-                    logger.info("Authentication set in SecurityContext for: " + username);
-                    logger.info("Authorities in context: " + auth.getAuthorities());
-                }
-            } catch (Exception e) {
-                logger.severe("JWT Token processing error: " + e.getMessage());
-                e.printStackTrace();
-            }
-        } else {
-            logger.info("No Authorization header found or invalid format");
+
+        if (header != null && header.startsWith(PREFIJO_BEARER)
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            autenticar(request, header.substring(PREFIJO_BEARER.length()));
         }
-        
-        // Log current authentication before continuing
-        if (SecurityContextHolder.getContext().getAuthentication() != null) {
-            logger.info("Current authentication: " + SecurityContextHolder.getContext().getAuthentication().getName());
-            logger.info("Current authorities: " + SecurityContextHolder.getContext().getAuthentication().getAuthorities());
-        } else {
-            logger.info("No authentication in SecurityContext");
+
+        if (trazaCada > 0 && logger.isDebugEnabled() && peticiones.incrementAndGet() % trazaCada == 0) {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            logger.debug("Traza JWT: {} {} header={} autenticado={} autoridades={}",
+                    request.getMethod(), request.getRequestURI(), header != null,
+                    auth != null ? auth.getName() : null, auth != null ? auth.getAuthorities() : null);
         }
-        
+
         filterChain.doFilter(request, response);
     }
+
+    private void autenticar(HttpServletRequest request, String token) {
+        try {
+            TokenJwtVerificado verificado = cacheTokensJwt.verificar(token);
+            UserPrincipal userPrincipal = verificado.principal();
+            List<GrantedAuthority> autoridades = autoridades(verificado.rol());
+            if (userPrincipal.getEmail() == null || autoridades == null) {
+                logger.debug("Token JWT sin usuario o sin rol en {}", request.getRequestURI());
+                return;
+            }
+
+            UsernamePasswordAuthenticationToken auth =
+                    new UsernamePasswordAuthenticationToken(userPrincipal, null, autoridades);
+            auth.setDetails(detailsSource.buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(auth);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Token expirado, alterado o mal formado: la petición sigue sin autenticar
+            logger.debug("Token JWT rechazado en {}: {}", request.getRequestURI(), e.getMessage());
+        } catch (RuntimeException e) {
+            logger.warn("Error al procesar el token JWT en {}: {}", request.getRequestURI(), e.toString());
+        }
+    }
+
+    private static List<GrantedAuthority> autoridades(String rol) {
+        if (rol == null) {
+            return null;
+        }
+        List<GrantedAuthority> autoridades = AUTORIDADES_POR_ROL.get(rol);
+        if (autoridades != null) {
+            return autoridades;
+        }
+        // Rol fuera del enum: se respeta el comportamiento anterior
+        return List.of(new SimpleGrantedAuthority(rol.startsWith("ROLE_") ? rol : "ROLE_" + rol));
+    }
 }
@@ -1,11 +1,19 @@
 package com.example.entrevista.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_convocatoria_activo_id", columnList = "activo, id"),
+    @Index(name = "idx_convocatoria_empresa_id", columnList = "empresa_id, id")
+})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@BatchSize(size = 50) // Proxies sin inicializar se cargan por lotes (p. ej. tras consultas nativas)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,7 +35,7 @@ public class Convocatoria {
     private String fechaCierre; // Fecha de cierre en formato ISO 8601 (YYYY-MM-DD)
     private int dificultad; // Nivel de dificultad de la convocatoria
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "empresa_id")
     private Empresa empresa;
 }
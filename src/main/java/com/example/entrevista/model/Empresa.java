@@ -1,11 +1,15 @@
 package com.example.entrevista.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@BatchSize(size = 50) // Proxies sin inicializar se cargan por lotes (p. ej. tras consultas nativas)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
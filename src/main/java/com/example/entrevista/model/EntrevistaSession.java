@@ -1,10 +1,16 @@
 package com.example.entrevista.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
+
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "entrevista_sessions")
+@DynamicUpdate // Los UPDATE solo incluyen las columnas modificadas, no los JSON grandes
+@Table(name = "entrevista_sessions", indexes = {
+    @Index(name = "idx_entrevista_sessions_postulacion", columnList = "postulacion_id"),
+    @Index(name = "idx_entrevista_sessions_completada_actividad", columnList = "es_completada, fecha_ultima_actividad")
+})
 public class EntrevistaSession {
     
     @Id
@@ -48,6 +54,21 @@ public class EntrevistaSession {
     
     @Column(name = "metadatos_json", columnDefinition = "TEXT")
     private String metadatosJson; // Para información adicional
+
+    // Snapshot materializado de los eventos (session_event): se actualiza con UPDATE atómicos al añadir cada evento.
+    // respuestasJson y evaluacionesJson quedan solo para sesiones antiguas que aún no se han migrado a eventos
+    @Column(name = "total_respuestas", nullable = false)
+    private int totalRespuestas = 0;
+
+    @Column(name = "total_evaluaciones", nullable = false)
+    private int totalEvaluaciones = 0;
+
+    @Column(name = "suma_porcentajes", nullable = false)
+    private double sumaPorcentajes = 0.0;
+
+    // Concurrencia optimista: los UPDATE masivos del snapshot también la incrementan
+    @Version
+    private Long version;
     
     // Constructores
     public EntrevistaSession() {}
@@ -166,6 +187,38 @@ public class EntrevistaSession {
         this.metadatosJson = metadatosJson;
     }
     
+    public int getTotalRespuestas() {
+        return totalRespuestas;
+    }
+    
+    public void setTotalRespuestas(int totalRespuestas) {
+        this.totalRespuestas = totalRespuestas;
+    }
+    
+    public int getTotalEvaluaciones() {
+        return totalEvaluaciones;
+    }
+    
+    public void setTotalEvaluaciones(int totalEvaluaciones) {
+        this.totalEvaluaciones = totalEvaluaciones;
+    }
+    
+    public double getSumaPorcentajes() {
+        return sumaPorcentajes;
+    }
+    
+    public void setSumaPorcentajes(double sumaPorcentajes) {
+        this.sumaPorcentajes = sumaPorcentajes;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     // Métodos de utilidad
     public void actualizarUltimaActividad() {
         this.fechaUltimaActividad = LocalDateTime.now();
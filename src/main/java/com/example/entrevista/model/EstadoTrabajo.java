@@ -0,0 +1,8 @@
+package com.example.entrevista.model;
+
+public enum EstadoTrabajo {
+    PENDIENTE,
+    EN_CURSO,
+    COMPLETADO,
+    FALLIDO
+}
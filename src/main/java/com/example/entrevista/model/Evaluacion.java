@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import java.util.Date;
 
 @Entity
+@Table(indexes = @Index(name = "idx_evaluacion_postulacion_id", columnList = "postulacion_id, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,11 +17,11 @@ public class Evaluacion {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "postulacion_id")
     private Postulacion postulacion;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "pregunta_id")
     private Pregunta pregunta;
 
@@ -0,0 +1,43 @@
+package com.example.entrevista.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Evento de una sesión de entrevista (una respuesta o una evaluación). Solo se insertan, nunca se modifican:
+// si la misma pregunta se responde o evalúa otra vez, vale el evento más reciente
+@Entity
+@Table(name = "session_event", indexes = {
+    @Index(name = "idx_session_event_sesion_tipo_pregunta", columnList = "session_id, tipo, pregunta_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoSesion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "session_id", nullable = false)
+    private Long sessionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TipoEventoSesion tipo;
+
+    @Column(name = "pregunta_id")
+    private Long preguntaId;
+
+    // Solo en evaluaciones; se guarda aparte para mantener la suma de la sesión sin leer el JSON
+    @Column(name = "porcentaje_obtenido")
+    private Double porcentajeObtenido;
+
+    @Column(name = "datos_json", columnDefinition = "TEXT")
+    private String datosJson;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+}
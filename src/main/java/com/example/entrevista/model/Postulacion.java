@@ -1,13 +1,26 @@
 package com.example.entrevista.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
+import java.util.Date;
 import java.util.List;
 
 @Entity
+// Los índices se crean con las migraciones de Flyway (V2); aquí solo se documentan
+@Table(indexes = {
+    @Index(name = "idx_postulacion_usuario_estado", columnList = "usuario_id, estado"),
+    @Index(name = "idx_postulacion_convocatoria_estado", columnList = "convocatoria_id, estado"),
+    // Paginación por cursor: filtro + id en el mismo índice
+    @Index(name = "idx_postulacion_convocatoria_id", columnList = "convocatoria_id, id"),
+    @Index(name = "idx_postulacion_estado_id", columnList = "estado, id")
+})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,15 +29,17 @@ public class Postulacion {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id")
     private Usuario usuario;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "convocatoria_id")
     private Convocatoria convocatoria;
 
+    // Si no viene en el entity graph, se inicializa por lotes al serializar listados
     @OneToMany(mappedBy = "postulacion", cascade = CascadeType.ALL)
+    @BatchSize(size = 50)
     private List<Pregunta> preguntas;
     
     @Enumerated(EnumType.STRING)
@@ -37,4 +52,36 @@ public class Postulacion {
     // Referencia a la sesión de entrevista (nueva arquitectura)
     @Column(name = "entrevista_session_id")
     private Long entrevistaSessionId;
+
+    // Sumas acumuladas de las evaluaciones para calcular los promedios sin recorrerlas.
+    // Solo las actualiza EvaluacionRepository.insertarEnLote con un UPDATE atómico: no se escriben
+    // al guardar la entidad, para que un save con datos antiguos no pise los acumulados.
+    @JsonIgnore
+    @Column(name = "total_evaluaciones", nullable = false, insertable = false, updatable = false)
+    private int totalEvaluaciones;
+
+    @JsonIgnore
+    @Column(name = "suma_claridad_estructura", nullable = false, insertable = false, updatable = false)
+    private long sumaClaridadEstructura;
+
+    @JsonIgnore
+    @Column(name = "suma_dominio_tecnico", nullable = false, insertable = false, updatable = false)
+    private long sumaDominioTecnico;
+
+    @JsonIgnore
+    @Column(name = "suma_pertinencia", nullable = false, insertable = false, updatable = false)
+    private long sumaPertinencia;
+
+    @JsonIgnore
+    @Column(name = "suma_comunicacion_seguridad", nullable = false, insertable = false, updatable = false)
+    private long sumaComunicacionSeguridad;
+
+    @JsonIgnore
+    @Column(name = "suma_porcentajes", nullable = false, insertable = false, updatable = false)
+    private double sumaPorcentajes;
+
+    @JsonIgnore
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "fecha_ultima_evaluacion", insertable = false, updatable = false)
+    private Date fechaUltimaEvaluacion;
 }
@@ -1,12 +1,15 @@
 package com.example.entrevista.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Table(indexes = @Index(name = "idx_pregunta_postulacion_numero", columnList = "postulacion_id, numero"))
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,11 +28,11 @@ public class Pregunta {
     
     private int score; // Valor de la pregunta en porcentaje
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "convocatoria_id")
     private Convocatoria convocatoria;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "postulacion_id")
     @JsonIgnore 
     private Postulacion postulacion;
@@ -0,0 +1,6 @@
+package com.example.entrevista.model;
+
+public enum TipoEventoSesion {
+    RESPUESTA,
+    EVALUACION
+}
@@ -0,0 +1,40 @@
+package com.example.entrevista.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Trabajo persistente de pre-generación de preguntas: sobrevive a reinicios y lo retoma el barrido periódico
+@Entity
+@Table(name = "trabajo_pregeneracion")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrabajoPreGeneracion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Un único trabajo por postulación
+    @Column(name = "postulacion_id", nullable = false, unique = true)
+    private Long postulacionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EstadoTrabajo estado = EstadoTrabajo.PENDIENTE;
+
+    @Column(nullable = false)
+    private int intentos = 0;
+
+    @Column(name = "ultimo_error", length = 1000)
+    private String ultimoError;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime fechaActualizacion;
+}
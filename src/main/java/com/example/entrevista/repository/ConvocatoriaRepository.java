@@ -1,20 +1,39 @@
 package com.example.entrevista.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
 import com.example.entrevista.model.Convocatoria;
 import java.util.List;
+import java.util.Optional;
 
 public interface ConvocatoriaRepository extends JpaRepository<Convocatoria, Long> {
     // Find convocatorias by empresa id
+    @EntityGraph(attributePaths = {"empresa"})
     List<Convocatoria> findByEmpresaId(Long empresaId);
     
     // Find active convocatorias using explicit query to handle numeric boolean representation
+    @EntityGraph(attributePaths = {"empresa"})
     @Query("SELECT c FROM Convocatoria c WHERE c.activo = true")
     List<Convocatoria> findByActivoTrue();
     
+    // Página por cursor de convocatorias activas (índice (activo, id))
+    @EntityGraph(attributePaths = {"empresa"})
+    Window<Convocatoria> findByActivoTrueOrderByIdAsc(ScrollPosition posicion, Limit limite);
+
     // Alternative method with more explicit SQL native query
     @Query(value = "SELECT * FROM convocatoria WHERE activo = 1", nativeQuery = true)
     List<Convocatoria> findActiveConvocatorias();
+
+    // Listado completo y detalle para la API (el JSON incluye la empresa)
+    @EntityGraph(attributePaths = {"empresa"})
+    @Query("SELECT c FROM Convocatoria c")
+    List<Convocatoria> findAllConEmpresa();
+
+    @EntityGraph(attributePaths = {"empresa"})
+    Optional<Convocatoria> findConEmpresaById(Long id);
 }
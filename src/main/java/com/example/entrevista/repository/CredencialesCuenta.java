@@ -0,0 +1,21 @@
+package com.example.entrevista.repository;
+
+// Proyección de las credenciales y los datos del token de una cuenta (usuario o empresa) para el login
+public interface CredencialesCuenta {
+
+    String getTipo(); // "USUARIO" o "EMPRESA"
+
+    Long getId();
+
+    String getEmail();
+
+    String getPassword();
+
+    String getRol();
+
+    String getNombre();
+
+    String getApellidoPaterno(); // null en empresas
+
+    String getApellidoMaterno(); // null en empresas
+}
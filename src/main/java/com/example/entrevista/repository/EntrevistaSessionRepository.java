@@ -3,6 +3,7 @@ package com.example.entrevista.repository;
 import com.example.entrevista.model.EntrevistaSession;
 import com.example.entrevista.model.EstadoSesion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -59,4 +60,34 @@ public interface EntrevistaSessionRepository extends JpaRepository<EntrevistaSes
     // Progreso promedio
     @Query("SELECT AVG(es.progresoCompletado) FROM EntrevistaSession es WHERE es.esCompletada = false")
     Double getProgresoPromedio();
+
+    // Snapshot de la sesión: UPDATE atómicos en la base de datos, sin leer ni reescribir la fila completa,
+    // para que dos eventos simultáneos no se pisen. Incrementan la versión para que las escrituras
+    // por entidad (actualizarProgreso, finalizarSesion) detecten el cambio y se reintenten
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE EntrevistaSession s SET s.totalRespuestas = s.totalRespuestas + :nuevas, " +
+           "s.fechaUltimaActividad = :ahora, s.version = s.version + 1 WHERE s.id = :id")
+    int registrarRespuesta(@Param("id") Long id, @Param("nuevas") int nuevas, @Param("ahora") LocalDateTime ahora);
+
+    // El progreso se asigna antes que el total: MySQL evalúa las asignaciones de izquierda a derecha
+    // con los valores ya actualizados, así que debe leer el total anterior como en el estándar SQL
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE EntrevistaSession s SET " +
+           "s.progresoCompletado = CASE WHEN (s.totalEvaluaciones + :nuevas) * 10 >= 100 THEN 100 " +
+           "ELSE (s.totalEvaluaciones + :nuevas) * 10 END, " +
+           "s.totalEvaluaciones = s.totalEvaluaciones + :nuevas, " +
+           "s.sumaPorcentajes = s.sumaPorcentajes + :delta, " +
+           "s.fechaUltimaActividad = :ahora, s.version = s.version + 1 WHERE s.id = :id")
+    int registrarEvaluacion(@Param("id") Long id, @Param("nuevas") int nuevas, @Param("delta") double delta,
+                            @Param("ahora") LocalDateTime ahora);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE EntrevistaSession s SET s.esCompletada = true, " +
+           "s.estadoSesion = com.example.entrevista.model.EstadoSesion.COMPLETADA, " +
+           "s.progresoCompletado = 100, s.fechaFinalizacion = :ahora, " +
+           "s.puntuacionTotal = CASE WHEN s.totalEvaluaciones > 0 THEN s.sumaPorcentajes / s.totalEvaluaciones " +
+           "ELSE s.puntuacionTotal END, s.version = s.version + 1 " +
+           "WHERE s.id = :id")
+    int completar(@Param("id") Long id, @Param("ahora") LocalDateTime ahora);
 }
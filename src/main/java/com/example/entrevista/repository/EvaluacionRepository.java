@@ -1,5 +1,9 @@
 package com.example.entrevista.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -7,14 +11,26 @@ import java.util.List;
 
 import com.example.entrevista.model.Evaluacion;
 
-public interface EvaluacionRepository extends JpaRepository<Evaluacion, Long> {
+public interface EvaluacionRepository extends JpaRepository<Evaluacion, Long>, EvaluacionRepositoryCustom {
     List<Evaluacion> findByPostulacionId(Long postulacionId);
     List<Evaluacion> findByPreguntaId(Long preguntaId);
+
+    // Listado para la API: el JSON incluye la pregunta y la postulación con sus relaciones
+    @EntityGraph(attributePaths = {"pregunta", "pregunta.convocatoria", "postulacion", "postulacion.usuario",
+                                   "postulacion.convocatoria", "postulacion.convocatoria.empresa"})
+    List<Evaluacion> findDetalleByPostulacionId(Long postulacionId);
     
     // Asumiendo que entrevistaId se refiere a un usuario que realiza entrevistas
+    @EntityGraph(attributePaths = {"pregunta", "pregunta.convocatoria", "postulacion", "postulacion.usuario",
+                                   "postulacion.convocatoria", "postulacion.convocatoria.empresa"})
     @Query("SELECT e FROM Evaluacion e WHERE e.postulacion.convocatoria.empresa.id = :entrevistaId")
     List<Evaluacion> findByEntrevistaId(@Param("entrevistaId") Long entrevistaId);
 
+    // Página por cursor de las evaluaciones de las convocatorias de una empresa (mismo filtro que findByEntrevistaId)
+    @EntityGraph(attributePaths = {"pregunta", "pregunta.convocatoria", "postulacion", "postulacion.usuario",
+                                   "postulacion.convocatoria", "postulacion.convocatoria.empresa"})
+    Window<Evaluacion> findByPostulacionConvocatoriaEmpresaIdOrderByIdAsc(Long empresaId, ScrollPosition posicion, Limit limite);
+
     // Métodos de conteo optimizados
     long countByPostulacionId(Long postulacionId);
 
@@ -27,6 +43,12 @@ public interface EvaluacionRepository extends JpaRepository<Evaluacion, Long> {
            "e.evaluacionCompleta != ''")
     long countEvaluacionesCompletas(@Param("postulacionId") Long postulacionId);
 
+    // Preguntas de la postulación con alguna evaluación propia; si coincide con el total de preguntas y de
+    // evaluaciones, cada pregunta tiene exactamente una evaluación
+    @Query("SELECT COUNT(DISTINCT e.pregunta.id) FROM Evaluacion e WHERE e.postulacion.id = :postulacionId " +
+           "AND e.pregunta.postulacion.id = :postulacionId")
+    long countPreguntasEvaluadas(@Param("postulacionId") Long postulacionId);
+
     @Query("SELECT COUNT(e) FROM Evaluacion e WHERE e.postulacion.id = :postulacionId AND " +
            "(e.claridadEstructura IS NULL OR e.dominioTecnico IS NULL OR " +
            "e.pertinencia IS NULL OR e.comunicacionSeguridad IS NULL OR " +
@@ -0,0 +1,14 @@
+package com.example.entrevista.repository;
+
+import java.util.List;
+
+import com.example.entrevista.model.Evaluacion;
+
+public interface EvaluacionRepositoryCustom {
+
+    /**
+     * Inserta todas las evaluaciones en un único batch JDBC, asigna a cada
+     * entidad el ID generado por la base de datos y actualiza los acumulados de su postulación.
+     */
+    void insertarEnLote(List<Evaluacion> evaluaciones);
+}
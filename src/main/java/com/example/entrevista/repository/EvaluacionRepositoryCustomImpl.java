@@ -0,0 +1,116 @@
+package com.example.entrevista.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.entrevista.model.Evaluacion;
+
+/**
+ * Inserción masiva de evaluaciones sin pasar por el contexto de persistencia de JPA.
+ * En MySQL el driver solo agrupa las sentencias si la URL incluye rewriteBatchedStatements=true
+ * (ParametrosJdbcMysql lo añade si falta).
+ *
+ * En la misma transacción suma los criterios de las evaluaciones a los acumulados de su postulación
+ * (un UPDATE atómico por postulación), de los que se calculan los promedios del resumen de resultados.
+ */
+public class EvaluacionRepositoryCustomImpl implements EvaluacionRepositoryCustom {
+
+    private static final String INSERT_EVALUACION =
+        "INSERT INTO evaluacion (postulacion_id, pregunta_id, fecha_evaluacion, evaluacion_completa, respuesta, " +
+        "claridad_estructura, dominio_tecnico, pertinencia, comunicacion_seguridad, puntaje_total, " +
+        "porcentaje_obtenido, estado) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Suma sobre los valores actuales de la fila: dos inserciones concurrentes no se pisan
+    private static final String ACUMULAR_EN_POSTULACION =
+        "UPDATE postulacion SET total_evaluaciones = total_evaluaciones + ?, " +
+        "suma_claridad_estructura = suma_claridad_estructura + ?, suma_dominio_tecnico = suma_dominio_tecnico + ?, " +
+        "suma_pertinencia = suma_pertinencia + ?, suma_comunicacion_seguridad = suma_comunicacion_seguridad + ?, " +
+        "suma_porcentajes = suma_porcentajes + ?, " +
+        "fecha_ultima_evaluacion = CASE WHEN fecha_ultima_evaluacion IS NULL OR fecha_ultima_evaluacion < ? " +
+        "THEN ? ELSE fecha_ultima_evaluacion END WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.jdbc.tamanio-lote:50}")
+    private int tamanioLote;
+
+    @Override
+    @Transactional
+    public void insertarEnLote(List<Evaluacion> evaluaciones) {
+        InsercionPorLotes.insertar(jdbcTemplate, INSERT_EVALUACION, evaluaciones, tamanioLote, (ps, evaluacion) -> {
+            ps.setObject(1, evaluacion.getPostulacion() != null ? evaluacion.getPostulacion().getId() : null, Types.BIGINT);
+            ps.setObject(2, evaluacion.getPregunta() != null ? evaluacion.getPregunta().getId() : null, Types.BIGINT);
+            ps.setTimestamp(3, evaluacion.getFechaEvaluacion() != null ? new Timestamp(evaluacion.getFechaEvaluacion().getTime()) : null);
+            ps.setString(4, evaluacion.getEvaluacionCompleta());
+            ps.setString(5, evaluacion.getRespuesta());
+            ps.setObject(6, evaluacion.getClaridadEstructura(), Types.INTEGER);
+            ps.setObject(7, evaluacion.getDominioTecnico(), Types.INTEGER);
+            ps.setObject(8, evaluacion.getPertinencia(), Types.INTEGER);
+            ps.setObject(9, evaluacion.getComunicacionSeguridad(), Types.INTEGER);
+            ps.setObject(10, evaluacion.getPuntajeTotal(), Types.DOUBLE);
+            ps.setObject(11, evaluacion.getPorcentajeObtenido(), Types.DOUBLE);
+            ps.setString(12, evaluacion.getEstado());
+        }, Evaluacion::setId);
+
+        acumularEnPostulaciones(evaluaciones);
+    }
+
+    private void acumularEnPostulaciones(List<Evaluacion> evaluaciones) {
+        Map<Long, Acumulado> porPostulacion = new LinkedHashMap<>();
+        for (Evaluacion evaluacion : evaluaciones) {
+            if (evaluacion.getPostulacion() != null && evaluacion.getPostulacion().getId() != null) {
+                porPostulacion.computeIfAbsent(evaluacion.getPostulacion().getId(), id -> new Acumulado()).sumar(evaluacion);
+            }
+        }
+        if (porPostulacion.isEmpty()) {
+            return;
+        }
+        List<Object[]> filas = new ArrayList<>();
+        porPostulacion.forEach((postulacionId, a) -> {
+            Timestamp fecha = a.fechaUltima != null ? new Timestamp(a.fechaUltima.getTime()) : null;
+            filas.add(new Object[] {a.total, a.claridad, a.dominio, a.pertinencia, a.comunicacion, a.porcentajes,
+                fecha, fecha, postulacionId});
+        });
+        jdbcTemplate.batchUpdate(ACUMULAR_EN_POSTULACION, filas, new int[] {Types.INTEGER, Types.BIGINT, Types.BIGINT,
+            Types.BIGINT, Types.BIGINT, Types.DOUBLE, Types.TIMESTAMP, Types.TIMESTAMP, Types.BIGINT});
+    }
+
+    // Los criterios sin valor cuentan como 0, igual que en el cálculo sobre la lista de evaluaciones
+    private static class Acumulado {
+        int total;
+        long claridad;
+        long dominio;
+        long pertinencia;
+        long comunicacion;
+        double porcentajes;
+        Date fechaUltima;
+
+        void sumar(Evaluacion evaluacion) {
+            total++;
+            claridad += valor(evaluacion.getClaridadEstructura());
+            dominio += valor(evaluacion.getDominioTecnico());
+            pertinencia += valor(evaluacion.getPertinencia());
+            comunicacion += valor(evaluacion.getComunicacionSeguridad());
+            porcentajes += evaluacion.getPorcentajeObtenido() != null ? evaluacion.getPorcentajeObtenido() : 0;
+            Date fecha = evaluacion.getFechaEvaluacion();
+            if (fecha != null && (fechaUltima == null || fecha.after(fechaUltima))) {
+                fechaUltima = fecha;
+            }
+        }
+
+        private static int valor(Integer puntaje) {
+            return puntaje != null ? puntaje : 0;
+        }
+    }
+}
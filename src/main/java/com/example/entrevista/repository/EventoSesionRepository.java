@@ -0,0 +1,18 @@
+package com.example.entrevista.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.entrevista.model.EventoSesion;
+import com.example.entrevista.model.TipoEventoSesion;
+
+public interface EventoSesionRepository extends JpaRepository<EventoSesion, Long> {
+
+    // Eventos de la sesión en orden de llegada, para reconstruir respuestas y evaluaciones
+    List<EventoSesion> findBySessionIdAndTipoOrderByIdAsc(Long sessionId, TipoEventoSesion tipo);
+
+    // Último evento de la misma pregunta: si existe, el nuevo lo reemplaza en el snapshot
+    Optional<EventoSesion> findFirstBySessionIdAndTipoAndPreguntaIdOrderByIdDesc(Long sessionId, TipoEventoSesion tipo, Long preguntaId);
+}
@@ -0,0 +1,60 @@
+package com.example.entrevista.repository;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * INSERT por lotes JDBC con recuperación de las claves generadas (columnas IDENTITY / AUTO_INCREMENT),
+ * que Hibernate no puede agrupar. Cada tramo de tamanioLote filas es un único executeBatch.
+ */
+final class InsercionPorLotes {
+
+    private InsercionPorLotes() {
+    }
+
+    static <T> void insertar(JdbcTemplate jdbcTemplate, String sql, List<T> entidades, int tamanioLote,
+                             ParameterizedPreparedStatementSetter<T> parametros, BiConsumer<T, Long> asignarId) {
+        int tamanio = Math.max(1, tamanioLote);
+        for (int desde = 0; desde < entidades.size(); desde += tamanio) {
+            insertarTramo(jdbcTemplate, sql, entidades.subList(desde, Math.min(desde + tamanio, entidades.size())),
+                parametros, asignarId);
+        }
+    }
+
+    private static <T> void insertarTramo(JdbcTemplate jdbcTemplate, String sql, List<T> tramo,
+                                          ParameterizedPreparedStatementSetter<T> parametros, BiConsumer<T, Long> asignarId) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            con -> con.prepareStatement(sql, new String[] {"id"}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    parametros.setValues(ps, tramo.get(i));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return tramo.size();
+                }
+            },
+            keyHolder);
+
+        // Las claves vuelven en el mismo orden del batch
+        List<Map<String, Object>> claves = keyHolder.getKeyList();
+        for (int i = 0; i < claves.size() && i < tramo.size(); i++) {
+            Object id = claves.get(i).values().stream().findFirst().orElse(null);
+            if (id instanceof Number numero) {
+                asignarId.accept(tramo.get(i), numero.longValue());
+            }
+        }
+    }
+}
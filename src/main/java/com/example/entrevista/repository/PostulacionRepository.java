@@ -1,21 +1,104 @@
 package com.example.entrevista.repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
 
 import com.example.entrevista.model.EstadoPostulacion;
 import com.example.entrevista.model.Postulacion;
 
 public interface PostulacionRepository extends JpaRepository<Postulacion, Long> {
 
+    // Listados: el JSON incluye usuario, convocatoria (con su empresa) y preguntas
+    @EntityGraph(attributePaths = {"usuario", "convocatoria", "convocatoria.empresa", "preguntas"})
     List<Postulacion> findByUsuarioId(Long usuarioId);
 
+    @EntityGraph(attributePaths = {"usuario", "convocatoria", "convocatoria.empresa", "preguntas"})
     List<Postulacion> findByConvocatoriaId(Long convocatoriaId);
     
+    @EntityGraph(attributePaths = {"usuario", "convocatoria", "convocatoria.empresa", "preguntas"})
     List<Postulacion> findByEstado(EstadoPostulacion estado);
     
+    @EntityGraph(attributePaths = {"usuario", "convocatoria", "convocatoria.empresa", "preguntas"})
     List<Postulacion> findByUsuarioIdAndEstado(Long usuarioId, EstadoPostulacion estado);
     
+    @EntityGraph(attributePaths = {"usuario", "convocatoria", "convocatoria.empresa", "preguntas"})
     List<Postulacion> findByConvocatoriaIdAndEstado(Long convocatoriaId, EstadoPostulacion estado);
+
+    // Páginas por cursor (keyset sobre id). Sin la colección de preguntas en el graph: un fetch de colección
+    // con límite obligaría a paginar en memoria; las preguntas se cargan por lotes (@BatchSize) al serializar.
+    // Apoyadas en los índices (convocatoria_id, id) y (estado, id).
+    @EntityGraph(attributePaths = {"usuario", "convocatoria", "convocatoria.empresa"})
+    Window<Postulacion> findByConvocatoriaIdOrderByIdAsc(Long convocatoriaId, ScrollPosition posicion, Limit limite);
+
+    @EntityGraph(attributePaths = {"usuario", "convocatoria", "convocatoria.empresa"})
+    Window<Postulacion> findByEstadoOrderByIdAsc(EstadoPostulacion estado, ScrollPosition posicion, Limit limite);
+
+    // Detalle de una postulación devuelto por la API
+    @EntityGraph(attributePaths = {"usuario", "convocatoria", "convocatoria.empresa", "preguntas"})
+    Optional<Postulacion> findDetalleById(Long id);
+
+    // Generación de preguntas: solo necesita la convocatoria (puesto y dificultad), fuera de transacción
+    @EntityGraph(attributePaths = {"convocatoria"})
+    Optional<Postulacion> findConConvocatoriaById(Long id);
+
+    // Conteos de preguntas y evaluaciones por postulación en una sola consulta agrupada.
+    // Solo devuelve postulaciones con problemas: preguntas sin evaluar, conteos que no coinciden
+    // o evaluaciones incompletas. Se consume como Stream (requiere transacción abierta).
+    // En MySQL el fetch size solo lee por bloques con useCursorFetch=true (lo añade ParametrosJdbcMysql).
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(value = "SELECT p.id AS postulacionId, p.usuario_id AS usuarioId, " +
+                   "COALESCE(pr.total, 0) AS totalPreguntas, " +
+                   "COALESCE(ev.total, 0) AS totalEvaluaciones, " +
+                   "COALESCE(ev.incompletas, 0) AS evaluacionesIncompletas " +
+                   "FROM postulacion p " +
+                   "LEFT JOIN (SELECT postulacion_id, COUNT(*) AS total FROM pregunta GROUP BY postulacion_id) pr " +
+                   "ON pr.postulacion_id = p.id " +
+                   "LEFT JOIN (SELECT postulacion_id, COUNT(*) AS total, " +
+                   "SUM(CASE WHEN claridad_estructura IS NULL OR dominio_tecnico IS NULL OR pertinencia IS NULL " +
+                   "OR comunicacion_seguridad IS NULL OR porcentaje_obtenido IS NULL " +
+                   "OR evaluacion_completa IS NULL OR evaluacion_completa = '' THEN 1 ELSE 0 END) AS incompletas " +
+                   "FROM evaluacion GROUP BY postulacion_id) ev " +
+                   "ON ev.postulacion_id = p.id " +
+                   "WHERE (COALESCE(pr.total, 0) > 0 AND COALESCE(ev.total, 0) = 0) " +
+                   "OR (COALESCE(ev.total, 0) > 0 AND COALESCE(pr.total, 0) <> ev.total) " +
+                   "OR COALESCE(ev.incompletas, 0) > 0 " +
+                   "ORDER BY p.id",
+           nativeQuery = true)
+    Stream<ResumenSaludPostulacion> streamPostulacionesConProblemas();
+
+    // Postulación con usuario, convocatoria, empresa, preguntas y evaluaciones en una sola consulta.
+    // Una fila por par pregunta/evaluación: [Postulacion, Pregunta|null, Evaluacion|null, total de evaluaciones].
+    // El total (subconsulta correlacionada) permite detectar evaluaciones que no casan con ninguna pregunta.
+    @Query("SELECT po, p, e, (SELECT COUNT(e2) FROM Evaluacion e2 WHERE e2.postulacion = po) " +
+           "FROM Postulacion po " +
+           "LEFT JOIN FETCH po.usuario " +
+           "LEFT JOIN FETCH po.convocatoria c " +
+           "LEFT JOIN FETCH c.empresa " +
+           "LEFT JOIN Pregunta p ON p.postulacion = po " +
+           "LEFT JOIN Evaluacion e ON e.pregunta = p AND e.postulacion = po " +
+           "WHERE po.id = :postulacionId " +
+           "ORDER BY p.numero, p.id, e.id")
+    List<Object[]> cargarConPreguntasYEvaluaciones(@Param("postulacionId") Long postulacionId);
+
+    // Solo toca preguntasGeneradas: la generación puede tardar minutos y un save de la entidad cargada
+    // antes pisaría el estado o la sesión de entrevista escritos mientras tanto
+    @Modifying
+    @Transactional
+    @Query("UPDATE Postulacion p SET p.preguntasGeneradas = true WHERE p.id = :id")
+    int marcarPreguntasGeneradas(@Param("id") Long id);
 }
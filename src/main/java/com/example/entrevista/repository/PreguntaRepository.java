@@ -1,21 +1,31 @@
 package com.example.entrevista.repository;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.example.entrevista.model.Pregunta;
 
-public interface PreguntaRepository extends JpaRepository<Pregunta, Long> {
+public interface PreguntaRepository extends JpaRepository<Pregunta, Long>, PreguntaRepositoryCustom {
 
+    // Listados: el JSON de cada pregunta incluye su convocatoria con la empresa
+    @EntityGraph(attributePaths = {"convocatoria", "convocatoria.empresa"})
     List<Pregunta> findByConvocatoriaId(Long convocatoriaId);
 
+    @EntityGraph(attributePaths = {"convocatoria", "convocatoria.empresa"})
     List<Pregunta> findByPostulacionId(Long postulacionId);
 
+    @EntityGraph(attributePaths = {"convocatoria", "convocatoria.empresa"})
     List<Pregunta> findByConvocatoriaIdAndPostulacionId(Long convocatoriaId, Long postulacionId);
 
+    // Evaluación: el puesto y la dificultad salen de la convocatoria, fuera de transacción
+    @EntityGraph(attributePaths = {"convocatoria"})
+    Optional<Pregunta> findConConvocatoriaById(Long id);
+
     List<Pregunta> findByTextoPregunta(String textoPregunta);
 
     // Métodos de conteo optimizados
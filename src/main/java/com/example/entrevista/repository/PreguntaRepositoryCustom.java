@@ -0,0 +1,14 @@
+package com.example.entrevista.repository;
+
+import java.util.List;
+
+import com.example.entrevista.model.Pregunta;
+
+public interface PreguntaRepositoryCustom {
+
+    /**
+     * Inserta las preguntas con batches JDBC (app.jdbc.tamanio-lote filas por batch) y asigna
+     * a cada entidad el ID generado por la base de datos.
+     */
+    void insertarEnLote(List<Pregunta> preguntas);
+}
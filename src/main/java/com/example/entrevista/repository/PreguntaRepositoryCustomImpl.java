@@ -0,0 +1,41 @@
+package com.example.entrevista.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.util.List;
+
+import com.example.entrevista.model.Pregunta;
+
+/**
+ * Inserción masiva de las preguntas generadas para una postulación sin pasar por el contexto de persistencia de JPA.
+ */
+public class PreguntaRepositoryCustomImpl implements PreguntaRepositoryCustom {
+
+    private static final String INSERT_PREGUNTA =
+        "INSERT INTO pregunta (numero, texto_pregunta, tipo, tipo_legible, score, convocatoria_id, postulacion_id) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.jdbc.tamanio-lote:50}")
+    private int tamanioLote;
+
+    @Override
+    @Transactional
+    public void insertarEnLote(List<Pregunta> preguntas) {
+        InsercionPorLotes.insertar(jdbcTemplate, INSERT_PREGUNTA, preguntas, tamanioLote, (ps, pregunta) -> {
+            ps.setInt(1, pregunta.getNumero());
+            ps.setString(2, pregunta.getTextoPregunta());
+            ps.setString(3, pregunta.getTipo());
+            ps.setString(4, pregunta.getTipoLegible());
+            ps.setInt(5, pregunta.getScore());
+            ps.setObject(6, pregunta.getConvocatoria() != null ? pregunta.getConvocatoria().getId() : null, Types.BIGINT);
+            ps.setObject(7, pregunta.getPostulacion() != null ? pregunta.getPostulacion().getId() : null, Types.BIGINT);
+        }, Pregunta::setId);
+    }
+}
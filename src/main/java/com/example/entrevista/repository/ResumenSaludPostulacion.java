@@ -0,0 +1,15 @@
+package com.example.entrevista.repository;
+
+// Proyección de una fila del reporte de salud: conteos agregados de una postulación
+public interface ResumenSaludPostulacion {
+
+    Long getPostulacionId();
+
+    Long getUsuarioId();
+
+    Long getTotalPreguntas();
+
+    Long getTotalEvaluaciones();
+
+    Long getEvaluacionesIncompletas();
+}
@@ -0,0 +1,37 @@
+package com.example.entrevista.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.entrevista.model.EstadoTrabajo;
+import com.example.entrevista.model.TrabajoPreGeneracion;
+
+public interface TrabajoPreGeneracionRepository extends JpaRepository<TrabajoPreGeneracion, Long> {
+
+    Optional<TrabajoPreGeneracion> findByPostulacionId(Long postulacionId);
+
+    List<TrabajoPreGeneracion> findTop100ByEstadoOrderByFechaActualizacionAsc(EstadoTrabajo estado);
+
+    // Reclama el trabajo de forma atómica: solo un worker (de cualquier instancia) lo pasa a EN_CURSO
+    @Modifying
+    @Transactional
+    @Query("UPDATE TrabajoPreGeneracion t SET t.estado = com.example.entrevista.model.EstadoTrabajo.EN_CURSO, " +
+           "t.intentos = t.intentos + 1, t.fechaActualizacion = :ahora " +
+           "WHERE t.id = :id AND t.estado = com.example.entrevista.model.EstadoTrabajo.PENDIENTE")
+    int reclamar(@Param("id") Long id, @Param("ahora") LocalDateTime ahora);
+
+    // Devuelve a PENDIENTE los trabajos EN_CURSO abandonados (p. ej. por un reinicio a mitad de la generación)
+    @Modifying
+    @Transactional
+    @Query("UPDATE TrabajoPreGeneracion t SET t.estado = com.example.entrevista.model.EstadoTrabajo.PENDIENTE, " +
+           "t.fechaActualizacion = :ahora " +
+           "WHERE t.estado = com.example.entrevista.model.EstadoTrabajo.EN_CURSO AND t.fechaActualizacion < :limite")
+    int liberarAbandonados(@Param("limite") LocalDateTime limite, @Param("ahora") LocalDateTime ahora);
+}
@@ -1,8 +1,11 @@
 package com.example.entrevista.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.entrevista.model.Usuario;
 
@@ -10,4 +13,16 @@ public interface UsuarioRepository extends JpaRepository <Usuario, Long>{
 
     Optional<Usuario> findByEmail(String email);
 
+    // Credenciales y datos del token de usuario y de empresa con el mismo email en una sola ida a la
+    // base de datos, apoyada en los índices únicos de email de ambas tablas
+    @Query(value = "SELECT 'USUARIO' AS tipo, u.id AS id, u.email AS email, u.password AS password, u.rol AS rol, " +
+                   "u.nombre AS nombre, u.apellido_paterno AS apellidoPaterno, u.apellido_materno AS apellidoMaterno " +
+                   "FROM usuario u WHERE u.email = :email " +
+                   "UNION ALL " +
+                   "SELECT 'EMPRESA' AS tipo, e.id AS id, e.email AS email, e.password AS password, e.rol AS rol, " +
+                   "e.nombre AS nombre, NULL AS apellidoPaterno, NULL AS apellidoMaterno " +
+                   "FROM empresa e WHERE e.email = :email",
+           nativeQuery = true)
+    List<CredencialesCuenta> findCredencialesByEmail(@Param("email") String email);
+
 }
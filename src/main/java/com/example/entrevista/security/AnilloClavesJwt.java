@@ -0,0 +1,246 @@
+package com.example.entrevista.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolver;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Anillo local de claves para firmar y verificar los JWT.
+ *
+ * Con jwt.claves.directorio configurado los tokens se firman con RS256 y llevan el kid de la clave en
+ * la cabecera. El directorio contiene, por cada kid, la clave privada PKCS#8 en {@code <kid>.key} y/o
+ * la pública X.509 en {@code <kid>.pub} (PEM). Los nodos que solo verifican necesitan únicamente los
+ * .pub: verificar es local, sin secreto compartido ni consultas a otros nodos, así que su coste no
+ * depende del número de nodos. Las claves se parsean al cargar el anillo y se buscan por kid en un mapa.
+ *
+ * Rotación sin cortes: se publica primero el .pub de la clave nueva en todos los nodos; cuando todos la
+ * han recargado (jwt.claves.recarga-ms) se añade su .key y pasa a firmar (la de kid mayor, salvo que se
+ * fije jwt.claves.activa). La clave anterior se retira cuando han expirado los tokens firmados con ella.
+ *
+ * Sin directorio se mantiene HS256 con jwt.secret. Con directorio los tokens HS256 se rechazan: quien
+ * tenga jwt.secret podría falsificarlos. Solo durante la migración, jwt.aceptar-hmac=true permite seguir
+ * verificando los HS256 ya emitidos (sin kid); se quita cuando hayan expirado.
+ */
+@Component
+public class AnilloClavesJwt {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnilloClavesJwt.class);
+
+    private static final String EXTENSION_PRIVADA = ".key";
+    private static final String EXTENSION_PUBLICA = ".pub";
+
+    private final SecretKey claveHmac;
+    private final Path directorio;
+    private final String kidConfigurado;
+    private final boolean aceptarHmac;
+
+    // Instantánea inmutable: la verificación la lee sin bloqueos y la recarga la reemplaza entera
+    private volatile Anillo anillo;
+
+    private final SigningKeyResolver resolver = new SigningKeyResolverAdapter() {
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            return claveVerificacion(header);
+        }
+    };
+
+    public AnilloClavesJwt(@Value("${jwt.secret:}") String secreto,
+                           @Value("${jwt.claves.directorio:}") String directorio,
+                           @Value("${jwt.claves.activa:}") String kidActivo,
+                           @Value("${jwt.aceptar-hmac:false}") boolean aceptarHmac) {
+        this.claveHmac = secreto.isBlank() ? null : Keys.hmacShaKeyFor(secreto.getBytes());
+        this.directorio = directorio.isBlank() ? null : Path.of(directorio);
+        this.kidConfigurado = kidActivo.isBlank() ? null : kidActivo;
+        this.aceptarHmac = this.directorio == null || aceptarHmac;
+        if (this.directorio != null && this.aceptarHmac && claveHmac != null) {
+            logger.warn("jwt.aceptar-hmac activo: se aceptan tokens HS256 firmados con jwt.secret; desactívalo al terminar la migración");
+        }
+
+        if (this.directorio == null) {
+            if (claveHmac == null) {
+                throw new IllegalStateException("Configura jwt.secret o jwt.claves.directorio para firmar los JWT");
+            }
+            this.anillo = new Anillo(Map.of(), null, null);
+        } else {
+            // Al arrancar, un directorio ilegible es un error de configuración
+            this.anillo = cargar();
+        }
+    }
+
+    /**
+     * Vuelve a leer el directorio de claves. Si falla se conserva el anillo anterior.
+     */
+    @Scheduled(initialDelayString = "${jwt.claves.recarga-ms:60000}", fixedDelayString = "${jwt.claves.recarga-ms:60000}")
+    public void recargar() {
+        if (directorio == null) {
+            return;
+        }
+        try {
+            Anillo nuevo = cargar();
+            Anillo anterior = anillo;
+            anillo = nuevo;
+            if (!nuevo.publicas().keySet().equals(anterior.publicas().keySet())
+                    || !String.valueOf(nuevo.kidActivo()).equals(String.valueOf(anterior.kidActivo()))) {
+                logger.info("Anillo JWT recargado: claves {} (firma con {})", nuevo.publicas().keySet(), nuevo.kidActivo());
+            }
+        } catch (RuntimeException e) {
+            logger.error("No se pudo recargar el anillo JWT de {}, se mantienen las claves anteriores: {}", directorio, e.getMessage());
+        }
+    }
+
+    /**
+     * Firma con la clave activa: RS256 con kid si hay anillo, HS256 en caso contrario.
+     */
+    public JwtBuilder firmar(JwtBuilder builder) {
+        Anillo actual = anillo;
+        if (actual.privadaActiva() != null) {
+            return builder.setHeaderParam(JwsHeader.KEY_ID, actual.kidActivo())
+                    .signWith(actual.privadaActiva(), SignatureAlgorithm.RS256);
+        }
+        if (claveHmac == null) {
+            throw new IllegalStateException("El anillo JWT no tiene ninguna clave privada en " + directorio);
+        }
+        return builder.signWith(claveHmac, SignatureAlgorithm.HS256);
+    }
+
+    /**
+     * Resuelve la clave de verificación por el kid de la cabecera, para JwtParserBuilder.setSigningKeyResolver.
+     */
+    public SigningKeyResolver getResolver() {
+        return resolver;
+    }
+
+    /**
+     * Claves públicas del anillo en formato JWKS (RFC 7517), para que otros servicios verifiquen los tokens.
+     */
+    public Map<String, Object> jwks() {
+        List<Map<String, Object>> claves = new ArrayList<>();
+        anillo.publicas().forEach((kid, clave) -> {
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "RSA");
+            jwk.put("use", "sig");
+            jwk.put("alg", SignatureAlgorithm.RS256.getValue());
+            jwk.put("kid", kid);
+            jwk.put("n", base64Url(clave.getModulus()));
+            jwk.put("e", base64Url(clave.getPublicExponent()));
+            claves.add(jwk);
+        });
+        return Map.of("keys", claves);
+    }
+
+    public String getKidActivo() {
+        return anillo.kidActivo();
+    }
+
+    private Key claveVerificacion(JwsHeader header) {
+        String kid = header.getKeyId();
+        if (kid != null) {
+            RSAPublicKey clave = anillo.publicas().get(kid);
+            // Un kid del anillo solo vale con RS256: evita confundir la clave pública con un secreto HMAC
+            if (clave == null || !SignatureAlgorithm.RS256.getValue().equals(header.getAlgorithm())) {
+                throw new UnsupportedJwtException("Clave JWT desconocida: " + kid);
+            }
+            return clave;
+        }
+        if (aceptarHmac && claveHmac != null && SignatureAlgorithm.HS256.getValue().equals(header.getAlgorithm())) {
+            return claveHmac;
+        }
+        throw new UnsupportedJwtException("Token JWT sin kid o con un algoritmo no admitido");
+    }
+
+    private Anillo cargar() {
+        Map<String, RSAPublicKey> publicas = new TreeMap<>();
+        TreeMap<String, PrivateKey> privadas = new TreeMap<>();
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio)) {
+            for (Path archivo : archivos) {
+                String nombre = archivo.getFileName().toString();
+                if (nombre.endsWith(EXTENSION_PRIVADA)) {
+                    RSAPrivateCrtKey privada = (RSAPrivateCrtKey) KeyFactory.getInstance("RSA")
+                            .generatePrivate(new PKCS8EncodedKeySpec(leerPem(archivo)));
+                    String kid = kid(nombre, EXTENSION_PRIVADA);
+                    privadas.put(kid, privada);
+                    // La pública se deriva de la privada: basta con el .key en los nodos que firman
+                    publicas.putIfAbsent(kid, (RSAPublicKey) KeyFactory.getInstance("RSA")
+                            .generatePublic(new RSAPublicKeySpec(privada.getModulus(), privada.getPublicExponent())));
+                } else if (nombre.endsWith(EXTENSION_PUBLICA)) {
+                    publicas.put(kid(nombre, EXTENSION_PUBLICA), (RSAPublicKey) KeyFactory.getInstance("RSA")
+                            .generatePublic(new X509EncodedKeySpec(leerPem(archivo))));
+                }
+            }
+        } catch (IOException | GeneralSecurityException | IllegalArgumentException | ClassCastException e) {
+            throw new IllegalStateException("No se pudo leer el anillo de claves JWT de " + directorio + ": " + e.getMessage(), e);
+        }
+
+        String kidActivo = kidConfigurado != null ? kidConfigurado : (privadas.isEmpty() ? null : privadas.lastKey());
+        PrivateKey privadaActiva = kidActivo != null ? privadas.get(kidActivo) : null;
+        if (kidConfigurado != null && privadaActiva == null) {
+            throw new IllegalStateException("No existe la clave privada " + kidConfigurado + EXTENSION_PRIVADA + " en " + directorio);
+        }
+        if (privadaActiva == null) {
+            // Nodo solo de verificación (o anillo aún sin .key): firma con HMAC si hay jwt.secret
+            logger.warn("Anillo JWT sin clave privada en {}: los tokens nuevos no se firmarán con RS256", directorio);
+        }
+        return new Anillo(Collections.unmodifiableMap(publicas), privadaActiva != null ? kidActivo : null, privadaActiva);
+    }
+
+    private static String kid(String nombreArchivo, String extension) {
+        return nombreArchivo.substring(0, nombreArchivo.length() - extension.length());
+    }
+
+    private static byte[] leerPem(Path archivo) throws IOException {
+        StringBuilder base64 = new StringBuilder();
+        for (String linea : Files.readAllLines(archivo, StandardCharsets.US_ASCII)) {
+            if (!linea.startsWith("-----")) {
+                base64.append(linea.trim());
+            }
+        }
+        return Base64.getDecoder().decode(base64.toString());
+    }
+
+    // Entero sin signo en big-endian, como exige JWK
+    private static String base64Url(BigInteger valor) {
+        byte[] bytes = valor.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private record Anillo(Map<String, RSAPublicKey> publicas, String kidActivo, PrivateKey privadaActiva) {
+    }
+}
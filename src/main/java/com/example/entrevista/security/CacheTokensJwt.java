@@ -0,0 +1,76 @@
+package com.example.entrevista.security;
+
+import com.example.entrevista.util.HashUtil;
+import com.example.entrevista.util.JwtUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens ya verificados, indexados por el SHA-256 del token: las peticiones repetidas de un mismo
+ * cliente no vuelven a comprobar la firma (HMAC o RSA) ni a parsear el JSON.
+ *
+ * Un acierto exige los mismos bytes de un token cuya firma ya se comprobó, así que no se acepta nada
+ * que el parser habría rechazado. Cada entrada caduca cuando expira su token; los tokens inválidos
+ * no se guardan y los que no tienen expiración se verifican siempre.
+ */
+@Component
+public class CacheTokensJwt {
+
+    private final JwtUtil jwtUtil;
+    private final Cache<String, TokenJwtVerificado> verificados;
+
+    public CacheTokensJwt(JwtUtil jwtUtil,
+                          @Value("${app.cache.jwt.max-entradas:10000}") long maxEntradas,
+                          MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.verificados = Caffeine.newBuilder()
+            .maximumSize(maxEntradas)
+            .expireAfter(new Expiry<String, TokenJwtVerificado>() {
+                @Override
+                public long expireAfterCreate(String clave, TokenJwtVerificado token, long ahora) {
+                    return hastaExpirar(token);
+                }
+
+                @Override
+                public long expireAfterUpdate(String clave, TokenJwtVerificado token, long ahora, long restante) {
+                    return hastaExpirar(token);
+                }
+
+                @Override
+                public long expireAfterRead(String clave, TokenJwtVerificado token, long ahora, long restante) {
+                    return restante;
+                }
+            })
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verificados, "jwt.tokens");
+    }
+
+    /**
+     * Devuelve el token verificado desde la caché o lo verifica con JwtUtil.
+     * Propaga las mismas excepciones de jjwt que extractAllClaims si el token no es válido.
+     */
+    public TokenJwtVerificado verificar(String token) {
+        String clave = HashUtil.sha256(token);
+        TokenJwtVerificado enCache = verificados.getIfPresent(clave);
+        if (enCache != null && !enCache.expirado()) {
+            return enCache;
+        }
+        TokenJwtVerificado verificado = jwtUtil.verificar(token);
+        if (verificado.expiracion() != null) {
+            verificados.put(clave, verificado);
+        }
+        return verificado;
+    }
+
+    private static long hastaExpirar(TokenJwtVerificado token) {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, token.expiracion().getTime() - System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.entrevista.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cuenta los logins fallidos por email y por IP dentro de una ventana. Al superar el límite,
+ * los intentos se rechazan antes de llegar a BCrypt, así que un ataque de fuerza bruta
+ * no consume CPU de hashing.
+ *
+ * La ventana empieza con el primer fallo: pasado ese tiempo el contador se descarta entero.
+ *
+ * El límite por IP está desactivado por defecto (app.auth.max-fallos-por-ip=0): detrás de un proxy o
+ * balanceador todas las peticiones llegan con la misma IP y unos pocos fallos bloquearían a todos.
+ * Solo debe activarse con server.forward-headers-strategy configurado, para que la IP sea la del cliente.
+ */
+@Component
+public class LimitadorIntentosLogin {
+
+    private final int maxFallosPorEmail;
+    private final int maxFallosPorIp;
+    private final Duration ventana;
+    private final Cache<String, AtomicInteger> fallos;
+    private final Counter bloqueados;
+
+    public LimitadorIntentosLogin(@Value("${app.auth.max-fallos-por-email:5}") int maxFallosPorEmail,
+                                  @Value("${app.auth.max-fallos-por-ip:0}") int maxFallosPorIp,
+                                  @Value("${app.auth.ventana-fallos:15m}") Duration ventana,
+                                  @Value("${app.auth.max-claves-fallos:100000}") long maxClaves,
+                                  MeterRegistry meterRegistry) {
+        this.maxFallosPorEmail = maxFallosPorEmail;
+        this.maxFallosPorIp = maxFallosPorIp;
+        this.ventana = ventana;
+        this.fallos = Caffeine.newBuilder()
+            .maximumSize(maxClaves)
+            .expireAfterWrite(ventana)
+            .build();
+        this.bloqueados = Counter.builder("auth.login.bloqueados")
+            .description("Intentos de login rechazados por exceso de fallos, sin verificar la contraseña")
+            .register(meterRegistry);
+    }
+
+    /**
+     * true si el email o la IP (con el límite por IP activado) superaron el límite de fallos de la ventana actual.
+     */
+    public boolean bloqueado(String email, String ip) {
+        boolean bloqueado = superado(claveEmail(email), maxFallosPorEmail) || superado(claveIp(ip), maxFallosPorIp);
+        if (bloqueado) {
+            bloqueados.increment();
+        }
+        return bloqueado;
+    }
+
+    public void registrarFallo(String email, String ip) {
+        incrementar(claveEmail(email));
+        incrementar(claveIp(ip));
+    }
+
+    // Un login correcto limpia los fallos del email; los de la IP siguen contando (IP compartida por un atacante)
+    public void registrarExito(String email) {
+        fallos.invalidate(claveEmail(email));
+    }
+
+    public Duration getVentana() {
+        return ventana;
+    }
+
+    private boolean superado(String clave, int maximo) {
+        if (clave == null) {
+            return false;
+        }
+        AtomicInteger contador = fallos.getIfPresent(clave);
+        return contador != null && contador.get() >= maximo;
+    }
+
+    private void incrementar(String clave) {
+        if (clave != null) {
+            // Solo el primer fallo crea la entrada: los siguientes no alargan la ventana
+            fallos.get(clave, k -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    private static String claveEmail(String email) {
+        return email != null ? "email:" + email.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    private String claveIp(String ip) {
+        return ip != null && maxFallosPorIp > 0 ? "ip:" + ip : null;
+    }
+}
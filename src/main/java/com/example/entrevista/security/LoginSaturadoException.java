@@ -0,0 +1,12 @@
+package com.example.entrevista.security;
+
+/**
+ * El pool de verificación de contraseñas está lleno o no atendió el login a tiempo.
+ * El controlador lo traduce a 429 para que el cliente reintente más tarde.
+ */
+public class LoginSaturadoException extends RuntimeException {
+
+    public LoginSaturadoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.entrevista.security;
+
+import java.util.Date;
+
+/**
+ * Resultado de verificar un JWT: el principal, el rol y la expiración, leídos de un único parseo.
+ */
+public record TokenJwtVerificado(UserPrincipal principal, String rol, Date expiracion) {
+
+    public boolean expirado() {
+        return expiracion != null && !expiracion.after(new Date());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.entrevista.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Ejecuta la autenticación por contraseña (BCrypt) en un pool propio y acotado, para que una ráfaga de
+ * logins al inicio de las entrevistas no ocupe toda la CPU ni los hilos del servidor.
+ *
+ * Con la cola llena, o si el login no se atiende dentro del timeout, se lanza LoginSaturadoException (429).
+ */
+@Component
+public class VerificadorCredenciales {
+
+    private final AuthenticationManager authenticationManager;
+    private final Duration timeout;
+
+    // Pool acotado propio: no se expone como bean para no reemplazar el applicationTaskExecutor de Spring Boot
+    private final ThreadPoolExecutor executor;
+    private final Timer espera;
+    private final Counter rechazados;
+
+    public VerificadorCredenciales(AuthenticationManager authenticationManager,
+                                   @Value("${app.auth.hash.hilos:0}") int hilos,
+                                   @Value("${app.auth.hash.capacidad-cola:100}") int capacidadCola,
+                                   @Value("${app.auth.hash.timeout:5s}") Duration timeout,
+                                   MeterRegistry meterRegistry) {
+        this.authenticationManager = authenticationManager;
+        this.timeout = timeout;
+        // BCrypt es CPU pura: por defecto un hilo por núcleo
+        int tamanio = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(tamanio, tamanio, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(capacidadCola), new CustomizableThreadFactory("auth-hash-"));
+
+        this.espera = Timer.builder("auth.hash.espera")
+            .description("Tiempo en cola antes de verificar la contraseña")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        this.rechazados = Counter.builder("auth.hash.rechazados")
+            .description("Logins rechazados con 429 por pool de hashing saturado")
+            .register(meterRegistry);
+        Gauge.builder("auth.hash.cola", executor, e -> e.getQueue().size())
+            .description("Logins esperando un hilo de hashing")
+            .register(meterRegistry);
+        Gauge.builder("auth.hash.activos", executor, ThreadPoolExecutor::getActiveCount)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Autentica en el pool de hashing y espera el resultado. Propaga las AuthenticationException
+     * del AuthenticationManager tal cual.
+     */
+    public Authentication autenticar(Authentication credenciales) {
+        long encolado = System.nanoTime();
+        Future<Authentication> resultado;
+        try {
+            resultado = executor.submit(() -> {
+                espera.record(System.nanoTime() - encolado, TimeUnit.NANOSECONDS);
+                return authenticationManager.authenticate(credenciales);
+            });
+        } catch (RejectedExecutionException e) {
+            rechazados.increment();
+            throw new LoginSaturadoException("Pool de verificación de contraseñas lleno");
+        }
+
+        try {
+            return resultado.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException("Error al verificar las credenciales", e.getCause());
+        } catch (TimeoutException e) {
+            resultado.cancel(true);
+            rechazados.increment();
+            throw new LoginSaturadoException("La verificación de la contraseña no se atendió a tiempo");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resultado.cancel(true);
+            throw new LoginSaturadoException("Verificación de la contraseña interrumpida");
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.entrevista.service;
+
+import com.example.entrevista.util.HashUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Caché direccionada por contenido de los conjuntos de preguntas generados por el LLM.
+ *
+ * La clave es el hash SHA-256 del modelo y del prompt (que depende solo de puesto y dificultad).
+ * Cada clave guarda un pool de hasta N conjuntos distintos: mientras el pool no está lleno se
+ * sigue llamando al LLM para dar variedad a los candidatos; una vez lleno se reparte al azar.
+ */
+@Service
+public class CachePreguntasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachePreguntasService.class);
+
+    private final Cache<String, List<String>> conjuntos;
+    private final int tamanioPool;
+    private final Counter aciertos;
+    private final Counter fallos;
+
+    public CachePreguntasService(@Value("${app.cache.preguntas.pool-por-clave:5}") int tamanioPool,
+                                 @Value("${app.cache.preguntas.max-claves:1000}") long maxClaves,
+                                 @Value("${app.cache.preguntas.ttl:24h}") Duration ttl,
+                                 MeterRegistry meterRegistry) {
+        this.tamanioPool = tamanioPool;
+        this.conjuntos = Caffeine.newBuilder()
+            .maximumSize(maxClaves)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, conjuntos, "preguntas.conjuntos");
+        this.aciertos = Counter.builder("preguntas.cache.consultas").tag("resultado", "hit").register(meterRegistry);
+        this.fallos = Counter.builder("preguntas.cache.consultas").tag("resultado", "miss").register(meterRegistry);
+    }
+
+    public String calcularClave(String modelo, String prompt) {
+        return HashUtil.sha256(modelo, prompt);
+    }
+
+    /**
+     * Devuelve un conjunto (JSON) del pool si ya está completo; vacío si hay que generar uno nuevo.
+     */
+    public Optional<String> obtener(String clave) {
+        if (tamanioPool < 1) {
+            return Optional.empty();
+        }
+        List<String> pool = conjuntos.getIfPresent(clave);
+        if (pool == null || pool.size() < tamanioPool) {
+            fallos.increment();
+            return Optional.empty();
+        }
+        aciertos.increment();
+        return Optional.of(pool.get(ThreadLocalRandom.current().nextInt(pool.size())));
+    }
+
+    /**
+     * Añade al pool un conjunto válido recién generado, si todavía hay hueco.
+     */
+    public void registrar(String clave, String conjuntoJson) {
+        if (tamanioPool < 1) {
+            return;
+        }
+        conjuntos.asMap().compute(clave, (k, actual) -> {
+            if (actual == null) {
+                return List.of(conjuntoJson);
+            }
+            if (actual.size() >= tamanioPool || actual.contains(conjuntoJson)) {
+                return actual;
+            }
+            List<String> nuevo = new ArrayList<>(actual);
+            nuevo.add(conjuntoJson);
+            return List.copyOf(nuevo);
+        });
+        logger.debug("Conjunto de preguntas registrado en caché para la clave {}", clave);
+    }
+}
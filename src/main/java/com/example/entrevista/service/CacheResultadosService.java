@@ -0,0 +1,80 @@
+package com.example.entrevista.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Caché de los resúmenes y detalles de resultados por postulación, que los paneles de candidato
+ * y empresa consultan periódicamente.
+ *
+ * Solo se guardan las respuestas con success=true. Se invalida al guardar una evaluación o al
+ * cambiar la postulación; el TTL acota lo que pueda quedar desactualizado por otras vías.
+ * Cada llamada recibe su propia copia del mapa, porque los controladores le añaden campos.
+ */
+@Service
+public class CacheResultadosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheResultadosService.class);
+
+    public enum Vista { RESUMEN, DETALLE }
+
+    private record Clave(Long postulacionId, Vista vista) {}
+
+    private final Cache<Clave, Map<String, Object>> resultados;
+
+    public CacheResultadosService(@Value("${app.cache.resultados.max-entradas:5000}") long maxEntradas,
+                                  @Value("${app.cache.resultados.ttl:10m}") Duration ttl,
+                                  MeterRegistry meterRegistry) {
+        this.resultados = Caffeine.newBuilder()
+            .maximumSize(maxEntradas)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, resultados, "resultados");
+        Gauge.builder("resultados.cache.ratio_aciertos", resultados, c -> c.stats().hitRate())
+            .description("Proporción de consultas de resultados servidas desde la caché")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Devuelve una copia del resultado en caché o lo calcula. Si una invalidación llega mientras se
+     * calcula, Caffeine espera a que termine y lo descarta, así que no queda un resultado anterior al cambio.
+     */
+    public Map<String, Object> obtener(Long postulacionId, Vista vista, Supplier<Map<String, Object>> calcular) {
+        AtomicReference<Map<String, Object>> sinCachear = new AtomicReference<>();
+        Map<String, Object> enCache = resultados.get(new Clave(postulacionId, vista), clave -> {
+            Map<String, Object> calculado = calcular.get();
+            if (!Boolean.TRUE.equals(calculado.get("success"))) {
+                // Errores y datos incompletos pueden resolverse en la siguiente consulta
+                sinCachear.set(calculado);
+                return null;
+            }
+            return Collections.unmodifiableMap(new HashMap<>(calculado));
+        });
+        return enCache != null ? new HashMap<>(enCache) : sinCachear.get();
+    }
+
+    public void invalidar(Long postulacionId) {
+        if (postulacionId == null) {
+            return;
+        }
+        for (Vista vista : Vista.values()) {
+            resultados.invalidate(new Clave(postulacionId, vista));
+        }
+        logger.debug("Resultados en caché invalidados para la postulación {}", postulacionId);
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.entrevista.service;
 
+import com.example.entrevista.DTO.PaginaResponse;
 import com.example.entrevista.model.Convocatoria;
 import com.example.entrevista.repository.ConvocatoriaRepository;
+import com.example.entrevista.util.PaginacionKeyset;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -19,11 +21,11 @@ public class ConvocatoriaService {
     }
 
     public List<Convocatoria> listarTodas() {
-        return convocatoriaRepository.findAll();
+        return convocatoriaRepository.findAllConEmpresa();
     }
 
     public Optional<Convocatoria> buscarPorId(Long id) {
-        return convocatoriaRepository.findById(id);
+        return convocatoriaRepository.findConEmpresaById(id);
     }
 
     public void eliminarConvocatoria(Long id) {
@@ -38,4 +40,10 @@ public class ConvocatoriaService {
         // Usar la consulta nativa explícita para garantizar la compatibilidad con la base de datos
         return convocatoriaRepository.findActiveConvocatorias();
     }
+
+    // Página por cursor de las convocatorias activas; lanza IllegalArgumentException si el cursor no es válido
+    public PaginaResponse<Convocatoria> paginarActivas(String cursor, Integer limite) {
+        return PaginacionKeyset.pagina(convocatoriaRepository.findByActivoTrueOrderByIdAsc(
+            PaginacionKeyset.posicion(cursor), PaginacionKeyset.limite(limite)), Convocatoria::getId);
+    }
 }
@@ -1,9 +1,7 @@
 package com.example.entrevista.service;
 
-import com.example.entrevista.model.Empresa;
 import com.example.entrevista.model.Usuario;
 import com.example.entrevista.repository.UsuarioRepository;
-import com.example.entrevista.repository.EmpresaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -18,44 +16,29 @@ public class CustomUserDetailsService implements UserDetailsService {
     private UsuarioRepository usuarioRepository;
 
     @Autowired
-    private EmpresaRepository empresaRepository;
+    private PasswordEncoder passwordEncoder;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private DirectorioCuentasService directorioCuentas;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        // Buscar usuario por email
-        Usuario user = usuarioRepository.findByEmail(email).orElse(null);
-        if (user != null) {
-            return org.springframework.security.core.userdetails.User
-                .withUsername(user.getEmail())
-                .password(user.getPassword())
-                .roles(user.getRol() != null ? user.getRol().name() : "USUARIO")
-                .build();
+        // Usuario y empresa en un único índice por email (con caché); si existe en ambas, tiene prioridad el usuario
+        DirectorioCuentasService.Cuenta cuenta = directorioCuentas.buscar(email);
+        if (cuenta == null) {
+            throw new UsernameNotFoundException("No existe usuario o empresa con email: " + email);
         }
-        // Buscar empresa por email
-        Empresa empresa = empresaRepository.findByEmail(email).orElse(null);
-        if (empresa != null) {
-            return org.springframework.security.core.userdetails.User
-                .withUsername(empresa.getEmail())
-                .password(empresa.getPassword())
-                .roles(empresa.getRol() != null ? empresa.getRol().name() : "EMPRESA")
-                .build();
-        }
-        throw new UsernameNotFoundException("No existe usuario o empresa con email: " + email);
+        return org.springframework.security.core.userdetails.User
+            .withUsername(cuenta.email())
+            .password(cuenta.password())
+            .roles(cuenta.rolEfectivo())
+            .build();
     }
 
     public Usuario saveUser(Usuario user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return usuarioRepository.save(user);
-    }
-
-    public Usuario findUsuarioByEmail(String email) {
-        return usuarioRepository.findByEmail(email).orElse(null);
-    }
-
-    public Empresa findEmpresaByEmail(String email) {
-        return empresaRepository.findByEmail(email).orElse(null);
+        Usuario guardado = usuarioRepository.save(user);
+        directorioCuentas.invalidar(guardado.getEmail());
+        return guardado;
     }
 }
@@ -10,6 +10,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -101,25 +102,43 @@ public class DatosEvaluacionService {
      * Método principal optimizado que obtiene todos los datos de una postulación
      * en una sola operación, minimizando las consultas a la base de datos
      */
+    @Transactional(readOnly = true)
     public DatosPostulacion obtenerDatosCompletos(Long postulacionId) {
         logger.info("Obteniendo datos completos para postulación {}", postulacionId);
         
         DatosPostulacion datos = new DatosPostulacion();
         
         try {
-            // 1. Obtener postulación (1 consulta)
-            Optional<Postulacion> postulacionOpt = postulacionRepository.findById(postulacionId);
-            if (!postulacionOpt.isPresent()) {
+            // 1. Postulación, preguntas y evaluaciones en una sola consulta (1 round-trip)
+            List<Object[]> filas = postulacionRepository.cargarConPreguntasYEvaluaciones(postulacionId);
+            if (filas.isEmpty()) {
                 datos.getProblemasDetectados().add("Postulación no encontrada");
                 logger.warn("Postulación {} no encontrada", postulacionId);
                 return datos;
             }
-            datos.setPostulacion(postulacionOpt.get());
+            datos.setPostulacion((Postulacion) filas.get(0)[0]);
+            long totalEvaluaciones = ((Number) filas.get(0)[3]).longValue();
+
+            // 2. Separar preguntas y evaluaciones (una pregunta se repite si tiene varias evaluaciones)
+            Map<Long, Pregunta> preguntasPorId = new LinkedHashMap<>();
+            List<Evaluacion> evaluaciones = new ArrayList<>();
+            for (Object[] fila : filas) {
+                if (fila[1] instanceof Pregunta pregunta) {
+                    preguntasPorId.putIfAbsent(pregunta.getId(), pregunta);
+                }
+                if (fila[2] instanceof Evaluacion evaluacion) {
+                    evaluaciones.add(evaluacion);
+                }
+            }
 
-            // 2. Obtener preguntas y evaluaciones en paralelo (2 consultas)
-            List<Pregunta> preguntas = preguntaRepository.findByPostulacionId(postulacionId);
-            List<Evaluacion> evaluaciones = evaluacionRepository.findByPostulacionId(postulacionId);
-            
+            // Evaluaciones sin pregunta de esta postulación: solo con datos inconsistentes se cargan aparte
+            if (evaluaciones.size() < totalEvaluaciones) {
+                logger.warn("Postulación {}: {} evaluaciones no corresponden a ninguna pregunta", 
+                           postulacionId, totalEvaluaciones - evaluaciones.size());
+                evaluaciones = evaluacionRepository.findByPostulacionId(postulacionId);
+            }
+
+            List<Pregunta> preguntas = new ArrayList<>(preguntasPorId.values());
             datos.setPreguntas(preguntas);
             datos.setEvaluaciones(evaluaciones);
 
@@ -180,53 +199,29 @@ public class DatosEvaluacionService {
     }
 
     /**
-     * Verifica si una postulación tiene datos suficientes para generar resultados
+     * Verifica si una postulación tiene datos suficientes para generar resultados.
+     * Se decide solo con conteos, sin cargar preguntas ni evaluaciones
      */
+    @Transactional(readOnly = true)
     public boolean puedeGenerarResultados(Long postulacionId) {
         logger.debug("Verificando si postulación {} puede generar resultados", postulacionId);
-        
-        // Optimización: verificar conteos antes de cargar todos los datos
-        if (!postulacionRepository.existsById(postulacionId)) {
-            logger.debug("Postulación {} no existe", postulacionId);
-            return false;
-        }
-
-        long totalPreguntas = preguntaRepository.countByPostulacionId(postulacionId);
-        long totalEvaluaciones = evaluacionRepository.countByPostulacionId(postulacionId);
-
-        if (totalPreguntas == 0 || totalEvaluaciones == 0) {
-            logger.debug("Postulación {}: {} preguntas, {} evaluaciones - insuficientes", 
-                        postulacionId, totalPreguntas, totalEvaluaciones);
-            return false;
-        }
-
-        if (totalPreguntas != totalEvaluaciones) {
-            logger.debug("Postulación {}: números no coinciden - {} preguntas vs {} evaluaciones", 
-                        postulacionId, totalPreguntas, totalEvaluaciones);
-            return false;
-        }
-
-        // Si los conteos son correctos, verificar calidad de datos
-        DatosPostulacion datos = obtenerDatosCompletos(postulacionId);
-        return datos.isDatosCompletos();
+        return contar(postulacionId).puedeGenerarResultados();
     }
 
     /**
      * Obtiene estadísticas rápidas sin cargar todos los datos
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> obtenerEstadisticasRapidas(Long postulacionId) {
         Map<String, Object> stats = new HashMap<>();
         
         try {
-            stats.put("postulacion_existe", postulacionRepository.existsById(postulacionId));
-            stats.put("total_preguntas", preguntaRepository.countByPostulacionId(postulacionId));
-            stats.put("total_evaluaciones", evaluacionRepository.countByPostulacionId(postulacionId));
-            
-            // Calcular evaluaciones completas sin cargar toda la data
-            long evaluacionesCompletas = evaluacionRepository.countEvaluacionesCompletas(postulacionId);
-            stats.put("evaluaciones_completas", evaluacionesCompletas);
-            
-            stats.put("puede_generar_resultados", puedeGenerarResultados(postulacionId));
+            Conteos conteos = contar(postulacionId);
+            stats.put("postulacion_existe", conteos.existe());
+            stats.put("total_preguntas", conteos.preguntas());
+            stats.put("total_evaluaciones", conteos.evaluaciones());
+            stats.put("evaluaciones_completas", conteos.completas());
+            stats.put("puede_generar_resultados", conteos.puedeGenerarResultados());
             
         } catch (Exception e) {
             logger.error("Error obteniendo estadísticas para postulación {}: {}", postulacionId, e.getMessage());
@@ -236,6 +231,37 @@ public class DatosEvaluacionService {
         return stats;
     }
 
+    /**
+     * Conteos con los que se decide si hay resultados: mismas reglas que validarIntegridad
+     */
+    private record Conteos(boolean existe, long preguntas, long evaluaciones, long completas, long preguntasEvaluadas) {
+
+        boolean puedeGenerarResultados() {
+            return existe && preguntas > 0 && evaluaciones == preguntas
+                && completas == evaluaciones && preguntasEvaluadas == preguntas;
+        }
+    }
+
+    private Conteos contar(Long postulacionId) {
+        // El total de evaluaciones sale del acumulado de la postulación (una fila por clave primaria)
+        Optional<Postulacion> postulacion = postulacionRepository.findById(postulacionId);
+        if (postulacion.isEmpty()) {
+            logger.debug("Postulación {} no existe", postulacionId);
+            return new Conteos(false, 0, 0, 0, 0);
+        }
+        long totalEvaluaciones = postulacion.get().getTotalEvaluaciones();
+        long totalPreguntas = preguntaRepository.countByPostulacionId(postulacionId);
+        if (totalPreguntas == 0 || totalEvaluaciones == 0 || totalPreguntas != totalEvaluaciones) {
+            logger.debug("Postulación {}: {} preguntas, {} evaluaciones - insuficientes", 
+                        postulacionId, totalPreguntas, totalEvaluaciones);
+            return new Conteos(true, totalPreguntas, totalEvaluaciones,
+                               evaluacionRepository.countEvaluacionesCompletas(postulacionId), 0);
+        }
+        return new Conteos(true, totalPreguntas, totalEvaluaciones,
+                           evaluacionRepository.countEvaluacionesCompletas(postulacionId),
+                           evaluacionRepository.countPreguntasEvaluadas(postulacionId));
+    }
+
     // Métodos privados de utilidad
 
     private Map<Long, Evaluacion> construirMapaEvaluaciones(List<Evaluacion> evaluaciones) {
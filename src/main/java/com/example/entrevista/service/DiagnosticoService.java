@@ -6,12 +6,16 @@ import com.example.entrevista.model.Pregunta;
 import com.example.entrevista.repository.EvaluacionRepository;
 import com.example.entrevista.repository.PostulacionRepository;
 import com.example.entrevista.repository.PreguntaRepository;
+import com.example.entrevista.repository.ResumenSaludPostulacion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 @Service
 public class DiagnosticoService {
@@ -27,6 +31,9 @@ public class DiagnosticoService {
     @Autowired
     private PreguntaRepository preguntaRepository;
 
+    @Value("${app.diagnostico.max-detalle:500}")
+    private int maxDetalleProblemas;
+
     /**
      * Realiza un diagnóstico completo de una postulación
      * para verificar el estado de las evaluaciones
@@ -91,7 +98,18 @@ public class DiagnosticoService {
     /**
      * Obtiene un reporte de salud general del sistema de evaluaciones
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> reporteSaludSistema() {
+        return reporteSaludSistema(maxDetalleProblemas);
+    }
+
+    /**
+     * Reporte de salud basado en consultas agregadas: los conteos por postulación se calculan en la
+     * base de datos y se recorren como stream, por lo que la memoria no crece con el número de
+     * postulaciones. El detalle se limita a maxDetalle filas; los totales siempre son exactos.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> reporteSaludSistema(int maxDetalle) {
         Map<String, Object> reporte = new HashMap<>();
         
         try {
@@ -104,37 +122,36 @@ public class DiagnosticoService {
             reporte.put("total_preguntas", totalPreguntas);
             reporte.put("total_evaluaciones", totalEvaluaciones);
             
-            // Verificar consistencia general
             List<Map<String, Object>> postulacionesProblematicas = new ArrayList<>();
-            
-            // Buscar postulaciones con preguntas pero sin evaluaciones
-            List<Postulacion> todasPostulaciones = postulacionRepository.findAll();
-            for (Postulacion postulacion : todasPostulaciones) {
-                List<Pregunta> preguntas = preguntaRepository.findByPostulacionId(postulacion.getId());
-                List<Evaluacion> evaluaciones = evaluacionRepository.findByPostulacionId(postulacion.getId());
-                
-                if (!preguntas.isEmpty() && evaluaciones.isEmpty()) {
-                    Map<String, Object> problema = new HashMap<>();
-                    problema.put("postulacion_id", postulacion.getId());
-                    problema.put("usuario_id", postulacion.getUsuario().getId());
-                    problema.put("total_preguntas", preguntas.size());
-                    problema.put("total_evaluaciones", evaluaciones.size());
-                    problema.put("problema", "Tiene preguntas pero ninguna evaluación");
-                    postulacionesProblematicas.add(problema);
-                } else if (preguntas.size() != evaluaciones.size() && !evaluaciones.isEmpty()) {
-                    Map<String, Object> problema = new HashMap<>();
-                    problema.put("postulacion_id", postulacion.getId());
-                    problema.put("usuario_id", postulacion.getUsuario().getId());
-                    problema.put("total_preguntas", preguntas.size());
-                    problema.put("total_evaluaciones", evaluaciones.size());
-                    problema.put("problema", "Número de preguntas y evaluaciones no coincide");
-                    postulacionesProblematicas.add(problema);
+            Map<String, Long> problemasPorTipo = new LinkedHashMap<>();
+            long totalProblemas = 0;
+
+            try (Stream<ResumenSaludPostulacion> filas = postulacionRepository.streamPostulacionesConProblemas()) {
+                Iterator<ResumenSaludPostulacion> iterador = filas.iterator();
+                while (iterador.hasNext()) {
+                    ResumenSaludPostulacion fila = iterador.next();
+                    String problema = clasificarProblema(fila);
+                    totalProblemas++;
+                    problemasPorTipo.merge(problema, 1L, Long::sum);
+
+                    if (postulacionesProblematicas.size() < maxDetalle) {
+                        Map<String, Object> detalle = new HashMap<>();
+                        detalle.put("postulacion_id", fila.getPostulacionId());
+                        detalle.put("usuario_id", fila.getUsuarioId());
+                        detalle.put("total_preguntas", fila.getTotalPreguntas());
+                        detalle.put("total_evaluaciones", fila.getTotalEvaluaciones());
+                        detalle.put("evaluaciones_incompletas", fila.getEvaluacionesIncompletas());
+                        detalle.put("problema", problema);
+                        postulacionesProblematicas.add(detalle);
+                    }
                 }
             }
             
             reporte.put("postulaciones_problematicas", postulacionesProblematicas);
-            reporte.put("total_problemas_detectados", postulacionesProblematicas.size());
-            reporte.put("porcentaje_salud", calcularPorcentajeSalud(totalPostulaciones, postulacionesProblematicas.size()));
+            reporte.put("detalle_truncado", totalProblemas > postulacionesProblematicas.size());
+            reporte.put("problemas_por_tipo", problemasPorTipo);
+            reporte.put("total_problemas_detectados", totalProblemas);
+            reporte.put("porcentaje_salud", calcularPorcentajeSalud(totalPostulaciones, totalProblemas));
             reporte.put("timestamp", new Date());
             
         } catch (Exception e) {
@@ -145,6 +162,18 @@ public class DiagnosticoService {
         return reporte;
     }
 
+    private String clasificarProblema(ResumenSaludPostulacion fila) {
+        long preguntas = fila.getTotalPreguntas() != null ? fila.getTotalPreguntas() : 0;
+        long evaluaciones = fila.getTotalEvaluaciones() != null ? fila.getTotalEvaluaciones() : 0;
+        if (preguntas > 0 && evaluaciones == 0) {
+            return "Tiene preguntas pero ninguna evaluación";
+        }
+        if (evaluaciones > 0 && preguntas != evaluaciones) {
+            return "Número de preguntas y evaluaciones no coincide";
+        }
+        return "Tiene evaluaciones incompletas";
+    }
+
     /**
      * Intenta reparar automáticamente problemas detectados
      */
@@ -352,7 +381,7 @@ public class DiagnosticoService {
         return sugerencias;
     }
 
-    private double calcularPorcentajeSalud(long totalPostulaciones, int problemas) {
+    private double calcularPorcentajeSalud(long totalPostulaciones, long problemas) {
         if (totalPostulaciones == 0) return 100.0;
         return ((double)(totalPostulaciones - problemas) / totalPostulaciones) * 100.0;
     }
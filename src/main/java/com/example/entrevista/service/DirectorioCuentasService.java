@@ -0,0 +1,102 @@
+package com.example.entrevista.service;
+
+import com.example.entrevista.repository.CredencialesCuenta;
+import com.example.entrevista.repository.UsuarioRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Directorio de cuentas con un único índice por email para usuarios y empresas.
+ *
+ * Una sola consulta (UNION ALL sobre ambas tablas) trae lo necesario para verificar la contraseña y
+ * emitir el JWT, y el resultado queda en caché: el login no vuelve a leer la entidad tras autenticar.
+ * UsuarioService y EmpresaService invalidan el email en cada escritura; el TTL cubre los cambios
+ * hechos fuera de la aplicación. Los emails inexistentes no se guardan.
+ */
+@Service
+public class DirectorioCuentasService {
+
+    private final UsuarioRepository usuarioRepository;
+    private final Cache<String, Cuenta> cuentas;
+
+    public DirectorioCuentasService(UsuarioRepository usuarioRepository,
+                                    @Value("${app.cache.cuentas.max-entradas:10000}") long maxEntradas,
+                                    @Value("${app.cache.cuentas.ttl:10m}") Duration ttl,
+                                    MeterRegistry meterRegistry) {
+        this.usuarioRepository = usuarioRepository;
+        this.cuentas = Caffeine.newBuilder()
+            .maximumSize(maxEntradas)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cuentas, "cuentas");
+    }
+
+    /**
+     * Cuenta asociada al email, o null si no existe. Si el email está en ambas tablas tiene
+     * prioridad el usuario, como en el login original.
+     */
+    public Cuenta buscar(String email) {
+        if (email == null) {
+            return null;
+        }
+        return cuentas.get(email, this::cargar);
+    }
+
+    public void invalidar(String email) {
+        if (email != null) {
+            cuentas.invalidate(email);
+        }
+    }
+
+    private Cuenta cargar(String email) {
+        List<CredencialesCuenta> encontradas = usuarioRepository.findCredencialesByEmail(email);
+        CredencialesCuenta elegida = null;
+        for (CredencialesCuenta cuenta : encontradas) {
+            if (elegida == null || "USUARIO".equals(cuenta.getTipo())) {
+                elegida = cuenta;
+            }
+        }
+        // null: Caffeine no guarda la entrada
+        return elegida != null ? Cuenta.de(elegida) : null;
+    }
+
+    /**
+     * Datos de una cuenta para autenticar y emitir el token. tipo es "USUARIO" o "EMPRESA".
+     */
+    public record Cuenta(String tipo, Long id, String email, String password, String rol,
+                         String nombre, String apellidoPaterno, String apellidoMaterno) {
+
+        static Cuenta de(CredencialesCuenta c) {
+            return new Cuenta(c.getTipo(), c.getId(), c.getEmail(), c.getPassword(), c.getRol(),
+                c.getNombre(), c.getApellidoPaterno(), c.getApellidoMaterno());
+        }
+
+        // Rol sin prefijo; las cuentas sin rol asignado usan su tipo
+        public String rolEfectivo() {
+            return rol != null ? rol : tipo;
+        }
+
+        // Autoridad completa, tal como la genera User.roles()
+        public String autoridad() {
+            return "ROLE_" + rolEfectivo();
+        }
+
+        public boolean esUsuario() {
+            return "USUARIO".equals(tipo);
+        }
+
+        // No se imprime el hash de la contraseña
+        @Override
+        public String toString() {
+            return "Cuenta{tipo='" + tipo + "', id=" + id + ", email='" + email + "', rol='" + rol + "'}";
+        }
+    }
+}
@@ -14,8 +14,14 @@ public class EmpresaService {
     @Autowired
     private EmpresaRepository empresaRepository;
 
+    @Autowired
+    private DirectorioCuentasService directorioCuentas;
+
     public Empresa crearEmpresa(Empresa empresa) {
-        return empresaRepository.save(empresa);
+        Empresa guardada = empresaRepository.save(empresa);
+        // El login lee las cuentas del directorio en caché
+        directorioCuentas.invalidar(guardada.getEmail());
+        return guardada;
     }
 
     public Optional<Empresa> buscarPorId(Long id) {
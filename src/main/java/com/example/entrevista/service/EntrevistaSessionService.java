@@ -2,18 +2,27 @@ package com.example.entrevista.service;
 
 import com.example.entrevista.model.*;
 import com.example.entrevista.repository.*;
+import com.example.entrevista.util.ReintentoConcurrencia;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
 
+/**
+ * Sesiones de entrevista. Los métodos que modifican una sesión se ejecutan con ReintentoConcurrencia:
+ * cada intento es una transacción propia y, si otra petición cambió la sesión a la vez (@Version),
+ * se repite sobre los datos actuales en lugar de sobrescribirlos.
+ */
 @Service
 @Transactional
 public class EntrevistaSessionService {
@@ -32,6 +41,12 @@ public class EntrevistaSessionService {
     @Autowired
     private EvaluacionRepository evaluacionRepository;
     
+    @Autowired
+    private EventoSesionRepository eventoSesionRepository;
+    
+    @Autowired
+    private ReintentoConcurrencia reintentoConcurrencia;
+    
     private final ObjectMapper objectMapper;
     
     public EntrevistaSessionService() {
@@ -40,7 +55,12 @@ public class EntrevistaSessionService {
     }
     
     // Crear o recuperar sesión existente (idempotente)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public EntrevistaSession crearORecuperarSesion(Long postulacionId) {
+        return reintentoConcurrencia.ejecutar("crearORecuperarSesion " + postulacionId, () -> crearORecuperarSesionEnTransaccion(postulacionId));
+    }
+    
+    private EntrevistaSession crearORecuperarSesionEnTransaccion(Long postulacionId) {
         logger.info("Creando o recuperando sesión para postulación {}", postulacionId);
         
         // Verificar si ya existe
@@ -77,7 +97,12 @@ public class EntrevistaSessionService {
     }
     
     // Actualizar progreso de la sesión
+    @Transactional(propagation = Propagation.SUPPORTS)
     public EntrevistaSession actualizarProgreso(Long sessionId, int progreso) {
+        return reintentoConcurrencia.ejecutar("actualizarProgreso " + sessionId, () -> actualizarProgresoEnTransaccion(sessionId, progreso));
+    }
+    
+    private EntrevistaSession actualizarProgresoEnTransaccion(Long sessionId, int progreso) {
         EntrevistaSession sesion = entrevistaSessionRepository.findById(sessionId)
             .orElseThrow(() -> new RuntimeException("Sesión no encontrada con ID: " + sessionId));
         
@@ -93,81 +118,92 @@ public class EntrevistaSessionService {
         return entrevistaSessionRepository.save(sesion);
     }
     
-    // Agregar respuesta a la sesión
+    // Agregar respuesta a la sesión: inserta un evento y actualiza el snapshot con un UPDATE atómico,
+    // sin releer ni reescribir las respuestas anteriores
+    @Transactional(propagation = Propagation.SUPPORTS)
     public EntrevistaSession agregarRespuesta(Long sessionId, Long preguntaId, String respuesta) {
+        return reintentoConcurrencia.ejecutar("agregarRespuesta " + sessionId, () -> agregarRespuestaEnTransaccion(sessionId, preguntaId, respuesta));
+    }
+    
+    private EntrevistaSession agregarRespuestaEnTransaccion(Long sessionId, Long preguntaId, String respuesta) {
         EntrevistaSession sesion = entrevistaSessionRepository.findById(sessionId)
             .orElseThrow(() -> new RuntimeException("Sesión no encontrada con ID: " + sessionId));
         
         try {
-            // Obtener respuestas existentes o crear nuevo mapa
-            Map<String, Object> respuestas = new HashMap<>();
-            if (sesion.getRespuestasJson() != null && !sesion.getRespuestasJson().isEmpty()) {
-                respuestas = objectMapper.readValue(sesion.getRespuestasJson(), Map.class);
-            }
+            migrarJsonLegado(sesion);
             
-            // Agregar nueva respuesta
-            Map<String, Object> nuevaRespuesta = new HashMap<>();
-            nuevaRespuesta.put("pregunta_id", preguntaId);
-            nuevaRespuesta.put("respuesta", respuesta);
-            nuevaRespuesta.put("timestamp", LocalDateTime.now().toString());
+            Map<String, Object> datos = new HashMap<>();
+            datos.put("pregunta_id", preguntaId);
+            datos.put("respuesta", respuesta);
             
-            respuestas.put("pregunta_" + preguntaId, nuevaRespuesta);
+            // Una nueva respuesta a la misma pregunta reemplaza a la anterior: no suma al total
+            boolean reemplaza = preguntaId != null && eventoSesionRepository
+                .findFirstBySessionIdAndTipoAndPreguntaIdOrderByIdDesc(sessionId, TipoEventoSesion.RESPUESTA, preguntaId)
+                .isPresent();
             
-            // Actualizar JSON
-            String respuestasJson = objectMapper.writeValueAsString(respuestas);
-            sesion.setRespuestasJson(respuestasJson);
-            sesion.actualizarUltimaActividad();
+            LocalDateTime ahora = LocalDateTime.now();
+            registrarEvento(sessionId, TipoEventoSesion.RESPUESTA, preguntaId, null, datos, ahora);
+            entrevistaSessionRepository.registrarRespuesta(sessionId, reemplaza ? 0 : 1, ahora);
             
-            return entrevistaSessionRepository.save(sesion);
+            return entrevistaSessionRepository.findById(sessionId).orElseThrow();
             
+        } catch (ConcurrencyFailureException e) {
+            // Conflicto con otra escritura: lo gestiona el reintento
+            throw e;
         } catch (Exception e) {
             logger.error("Error al agregar respuesta a sesión {}: {}", sessionId, e.getMessage());
             throw new RuntimeException("Error al procesar respuesta");
         }
     }
     
-    // Agregar evaluación a la sesión
+    // Agregar evaluación a la sesión (evento + UPDATE atómico de totales, suma de porcentajes y progreso)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public EntrevistaSession agregarEvaluacion(Long sessionId, Evaluacion evaluacion) {
+        return reintentoConcurrencia.ejecutar("agregarEvaluacion " + sessionId, () -> agregarEvaluacionEnTransaccion(sessionId, evaluacion));
+    }
+    
+    private EntrevistaSession agregarEvaluacionEnTransaccion(Long sessionId, Evaluacion evaluacion) {
         EntrevistaSession sesion = entrevistaSessionRepository.findById(sessionId)
             .orElseThrow(() -> new RuntimeException("Sesión no encontrada con ID: " + sessionId));
         
         try {
-            // Obtener evaluaciones existentes o crear nuevo mapa
-            Map<String, Object> evaluaciones = new HashMap<>();
-            if (sesion.getEvaluacionesJson() != null && !sesion.getEvaluacionesJson().isEmpty()) {
-                evaluaciones = objectMapper.readValue(sesion.getEvaluacionesJson(), Map.class);
-            }
+            migrarJsonLegado(sesion);
+            
+            Long preguntaId = evaluacion.getPregunta() != null ? evaluacion.getPregunta().getId() : null;
+            double porcentaje = valor(evaluacion.getPorcentajeObtenido());
             
             // Crear objeto evaluación simplificado
             Map<String, Object> evaluacionData = new HashMap<>();
-            evaluacionData.put("pregunta_id", evaluacion.getPregunta().getId());
+            evaluacionData.put("pregunta_id", preguntaId);
             evaluacionData.put("claridad_estructura", evaluacion.getClaridadEstructura());
             evaluacionData.put("dominio_tecnico", evaluacion.getDominioTecnico());
             evaluacionData.put("pertinencia", evaluacion.getPertinencia());
             evaluacionData.put("comunicacion_seguridad", evaluacion.getComunicacionSeguridad());
             evaluacionData.put("porcentaje_obtenido", evaluacion.getPorcentajeObtenido());
             evaluacionData.put("evaluacion_completa", evaluacion.getEvaluacionCompleta());
-            evaluacionData.put("timestamp", LocalDateTime.now().toString());
-            
-            evaluaciones.put("pregunta_" + evaluacion.getPregunta().getId(), evaluacionData);
             
-            // Actualizar JSON
-            String evaluacionesJson = objectMapper.writeValueAsString(evaluaciones);
-            sesion.setEvaluacionesJson(evaluacionesJson);
-            sesion.actualizarUltimaActividad();
+            // Si la pregunta ya estaba evaluada, el snapshot cambia solo en la diferencia de porcentaje
+            Optional<EventoSesion> anterior = preguntaId == null ? Optional.empty() : eventoSesionRepository
+                .findFirstBySessionIdAndTipoAndPreguntaIdOrderByIdDesc(sessionId, TipoEventoSesion.EVALUACION, preguntaId);
+            int nuevas = anterior.isPresent() ? 0 : 1;
+            double delta = porcentaje - anterior.map(e -> valor(e.getPorcentajeObtenido())).orElse(0.0);
             
-            // Calcular progreso basado en número de evaluaciones
-            int totalEvaluaciones = evaluaciones.size();
-            int progreso = Math.min(100, (totalEvaluaciones * 10)); // Asumiendo 10 preguntas máximo
-            sesion.setProgresoCompletado(progreso);
+            LocalDateTime ahora = LocalDateTime.now();
+            registrarEvento(sessionId, TipoEventoSesion.EVALUACION, preguntaId, porcentaje, evaluacionData, ahora);
+            entrevistaSessionRepository.registrarEvaluacion(sessionId, nuevas, delta, ahora);
             
-            if (progreso >= 100) {
-                sesion.marcarComoCompletada();
-                calcularPuntuacionTotal(sesion, evaluaciones);
+            // Progreso basado en número de evaluaciones (asumiendo 10 preguntas máximo)
+            EntrevistaSession actualizada = entrevistaSessionRepository.findById(sessionId).orElseThrow();
+            if (actualizada.getProgresoCompletado() != null && actualizada.getProgresoCompletado() >= 100) {
+                entrevistaSessionRepository.completar(sessionId, ahora);
+                actualizada = entrevistaSessionRepository.findById(sessionId).orElseThrow();
             }
             
-            return entrevistaSessionRepository.save(sesion);
+            return actualizada;
             
+        } catch (ConcurrencyFailureException e) {
+            // Conflicto con otra escritura: lo gestiona el reintento
+            throw e;
         } catch (Exception e) {
             logger.error("Error al agregar evaluación a sesión {}: {}", sessionId, e.getMessage());
             throw new RuntimeException("Error al procesar evaluación");
@@ -175,17 +211,23 @@ public class EntrevistaSessionService {
     }
     
     // Finalizar sesión completa
+    @Transactional(propagation = Propagation.SUPPORTS)
     public EntrevistaSession finalizarSesion(Long sessionId) {
+        return reintentoConcurrencia.ejecutar("finalizarSesion " + sessionId, () -> finalizarSesionEnTransaccion(sessionId));
+    }
+    
+    private EntrevistaSession finalizarSesionEnTransaccion(Long sessionId) {
         EntrevistaSession sesion = entrevistaSessionRepository.findById(sessionId)
             .orElseThrow(() -> new RuntimeException("Sesión no encontrada con ID: " + sessionId));
         
         sesion.marcarComoCompletada();
         
         // Calcular puntuación total si tiene evaluaciones
-        if (sesion.getEvaluacionesJson() != null && !sesion.getEvaluacionesJson().isEmpty()) {
+        if (sesion.getTotalEvaluaciones() > 0) {
+            sesion.setPuntuacionTotal(sesion.getSumaPorcentajes() / sesion.getTotalEvaluaciones());
+        } else if (tieneJson(sesion.getEvaluacionesJson())) {
             try {
-                Map<String, Object> evaluaciones = objectMapper.readValue(sesion.getEvaluacionesJson(), Map.class);
-                calcularPuntuacionTotal(sesion, evaluaciones);
+                calcularPuntuacionTotal(sesion, leerMapa(sesion.getEvaluacionesJson()));
             } catch (Exception e) {
                 logger.error("Error al calcular puntuación total para sesión {}: {}", sessionId, e.getMessage());
             }
@@ -217,12 +259,15 @@ public class EntrevistaSessionService {
                 resultados.put("preguntas", objectMapper.readValue(sesion.getPreguntasJson(), Object.class));
             }
             
-            if (sesion.getRespuestasJson() != null) {
-                resultados.put("respuestas", objectMapper.readValue(sesion.getRespuestasJson(), Object.class));
+            // Respuestas y evaluaciones: se reconstruyen desde los eventos (o desde el JSON de sesiones sin migrar)
+            Map<String, Object> respuestas = reconstruir(sessionId, TipoEventoSesion.RESPUESTA, sesion.getRespuestasJson());
+            if (!respuestas.isEmpty()) {
+                resultados.put("respuestas", respuestas);
             }
             
-            if (sesion.getEvaluacionesJson() != null) {
-                resultados.put("evaluaciones", objectMapper.readValue(sesion.getEvaluacionesJson(), Object.class));
+            Map<String, Object> evaluaciones = reconstruir(sessionId, TipoEventoSesion.EVALUACION, sesion.getEvaluacionesJson());
+            if (!evaluaciones.isEmpty()) {
+                resultados.put("evaluaciones", evaluaciones);
             }
             
             if (sesion.getMetadatosJson() != null) {
@@ -240,7 +285,7 @@ public class EntrevistaSessionService {
         return resultados;
     }
     
-    // Obtener resumen de resultados
+    // Obtener resumen de resultados (desde el snapshot, sin leer los eventos)
     public Map<String, Object> obtenerResumenResultados(Long sessionId) {
         EntrevistaSession sesion = entrevistaSessionRepository.findById(sessionId)
             .orElseThrow(() -> new RuntimeException("Sesión no encontrada con ID: " + sessionId));
@@ -254,33 +299,23 @@ public class EntrevistaSessionService {
         resumen.put("puntuacion_total", sesion.getPuntuacionTotal());
         
         // Estadísticas rápidas si está completada
-        if (sesion.getEsCompletada() && sesion.getEvaluacionesJson() != null) {
-            try {
-                Map<String, Object> evaluaciones = objectMapper.readValue(sesion.getEvaluacionesJson(), Map.class);
-                
-                int totalPreguntas = evaluaciones.size();
-                double promedioGeneral = 0.0;
-                
-                for (Object eval : evaluaciones.values()) {
-                    if (eval instanceof Map) {
-                        Map<String, Object> evalMap = (Map<String, Object>) eval;
-                        Object porcentaje = evalMap.get("porcentaje_obtenido");
-                        if (porcentaje instanceof Number) {
-                            promedioGeneral += ((Number) porcentaje).doubleValue();
-                        }
-                    }
-                }
-                
-                if (totalPreguntas > 0) {
-                    promedioGeneral = promedioGeneral / totalPreguntas;
+        if (Boolean.TRUE.equals(sesion.getEsCompletada())) {
+            int totalPreguntas = sesion.getTotalEvaluaciones();
+            double promedioGeneral = totalPreguntas > 0 ? sesion.getSumaPorcentajes() / totalPreguntas : 0.0;
+            
+            if (totalPreguntas == 0 && tieneJson(sesion.getEvaluacionesJson())) {
+                // Sesión antigua aún sin migrar a eventos
+                try {
+                    Map<String, Object> evaluaciones = leerMapa(sesion.getEvaluacionesJson());
+                    totalPreguntas = evaluaciones.size();
+                    promedioGeneral = totalPreguntas > 0 ? sumarPorcentajes(evaluaciones) / totalPreguntas : 0.0;
+                } catch (Exception e) {
+                    logger.error("Error al calcular estadísticas para sesión {}: {}", sessionId, e.getMessage());
                 }
-                
-                resumen.put("total_preguntas", totalPreguntas);
-                resumen.put("promedio_general", Math.round(promedioGeneral * 100.0) / 100.0);
-                
-            } catch (Exception e) {
-                logger.error("Error al calcular estadísticas para sesión {}: {}", sessionId, e.getMessage());
             }
+            
+            resumen.put("total_preguntas", totalPreguntas);
+            resumen.put("promedio_general", Math.round(promedioGeneral * 100.0) / 100.0);
         }
         
         resumen.put("success", true);
@@ -297,29 +332,122 @@ public class EntrevistaSessionService {
         return entrevistaSessionRepository.existsByPostulacionId(postulacionId);
     }
     
-    // Método privado para calcular puntuación total
+    // Método privado para calcular puntuación total (sesiones antiguas con evaluaciones en JSON)
     private void calcularPuntuacionTotal(EntrevistaSession sesion, Map<String, Object> evaluaciones) {
-        try {
-            double total = 0.0;
-            int contador = 0;
-            
-            for (Object eval : evaluaciones.values()) {
-                if (eval instanceof Map) {
-                    Map<String, Object> evalMap = (Map<String, Object>) eval;
-                    Object porcentaje = evalMap.get("porcentaje_obtenido");
-                    if (porcentaje instanceof Number) {
-                        total += ((Number) porcentaje).doubleValue();
-                        contador++;
-                    }
-                }
+        int contador = (int) evaluaciones.values().stream()
+            .filter(eval -> eval instanceof Map && ((Map<?, ?>) eval).get("porcentaje_obtenido") instanceof Number)
+            .count();
+        if (contador > 0) {
+            sesion.setPuntuacionTotal(sumarPorcentajes(evaluaciones) / contador);
+        }
+    }
+    
+    private double sumarPorcentajes(Map<String, Object> evaluaciones) {
+        double total = 0.0;
+        for (Object eval : evaluaciones.values()) {
+            if (eval instanceof Map<?, ?> evalMap && evalMap.get("porcentaje_obtenido") instanceof Number porcentaje) {
+                total += porcentaje.doubleValue();
             }
-            
-            if (contador > 0) {
-                sesion.setPuntuacionTotal(total / contador);
+        }
+        return total;
+    }
+    
+    private void registrarEvento(Long sessionId, TipoEventoSesion tipo, Long preguntaId, Double porcentaje,
+                                 Map<String, Object> datos, LocalDateTime fecha) throws JsonProcessingException {
+        EventoSesion evento = new EventoSesion();
+        evento.setSessionId(sessionId);
+        evento.setTipo(tipo);
+        evento.setPreguntaId(preguntaId);
+        evento.setPorcentajeObtenido(porcentaje);
+        evento.setDatosJson(objectMapper.writeValueAsString(datos));
+        evento.setFechaCreacion(fecha);
+        eventoSesionRepository.save(evento);
+    }
+    
+    /**
+     * Respuestas o evaluaciones con el formato de los antiguos JSON ("pregunta_{id}" -> datos):
+     * se recorren los eventos en orden, así que el último de cada pregunta es el que queda.
+     */
+    private Map<String, Object> reconstruir(Long sessionId, TipoEventoSesion tipo, String jsonLegado) throws JsonProcessingException {
+        List<EventoSesion> eventos = eventoSesionRepository.findBySessionIdAndTipoOrderByIdAsc(sessionId, tipo);
+        if (eventos.isEmpty() && tieneJson(jsonLegado)) {
+            return leerMapa(jsonLegado);
+        }
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        for (EventoSesion evento : eventos) {
+            Map<String, Object> datos = leerMapa(evento.getDatosJson());
+            datos.put("timestamp", evento.getFechaCreacion().toString());
+            String clave = evento.getPreguntaId() != null ? "pregunta_" + evento.getPreguntaId() : "evento_" + evento.getId();
+            resultado.put(clave, datos);
+        }
+        return resultado;
+    }
+    
+    /**
+     * Convierte una sesión antigua (respuestas/evaluaciones en JSON) en eventos la primera vez que se modifica,
+     * fija el snapshot a partir de ellos y vacía los JSON. En las sesiones ya migradas no hace nada.
+     */
+    private void migrarJsonLegado(EntrevistaSession sesion) throws JsonProcessingException {
+        if (!tieneJson(sesion.getRespuestasJson()) && !tieneJson(sesion.getEvaluacionesJson())) {
+            return;
+        }
+        logger.info("Migrando respuestas y evaluaciones en JSON de la sesión {} a eventos", sesion.getId());
+        
+        Map<String, Object> respuestas = tieneJson(sesion.getRespuestasJson()) ? leerMapa(sesion.getRespuestasJson()) : Map.of();
+        for (Object valor : respuestas.values()) {
+            if (valor instanceof Map<?, ?> datos) {
+                registrarEvento(sesion.getId(), TipoEventoSesion.RESPUESTA, comoLong(datos.get("pregunta_id")), null,
+                    sinTimestamp(datos), fechaLegado(datos));
             }
-            
+        }
+        
+        Map<String, Object> evaluaciones = tieneJson(sesion.getEvaluacionesJson()) ? leerMapa(sesion.getEvaluacionesJson()) : Map.of();
+        double suma = 0.0;
+        for (Object valor : evaluaciones.values()) {
+            if (valor instanceof Map<?, ?> datos) {
+                double porcentaje = datos.get("porcentaje_obtenido") instanceof Number n ? n.doubleValue() : 0.0;
+                suma += porcentaje;
+                registrarEvento(sesion.getId(), TipoEventoSesion.EVALUACION, comoLong(datos.get("pregunta_id")), porcentaje,
+                    sinTimestamp(datos), fechaLegado(datos));
+            }
+        }
+        
+        sesion.setTotalRespuestas(respuestas.size());
+        sesion.setTotalEvaluaciones(evaluaciones.size());
+        sesion.setSumaPorcentajes(suma);
+        sesion.setRespuestasJson(null);
+        sesion.setEvaluacionesJson(null);
+        entrevistaSessionRepository.saveAndFlush(sesion);
+    }
+    
+    private Map<String, Object> leerMapa(String json) throws JsonProcessingException {
+        return objectMapper.readValue(json, new TypeReference<LinkedHashMap<String, Object>>() {});
+    }
+    
+    private static boolean tieneJson(String json) {
+        return json != null && !json.isEmpty();
+    }
+    
+    private static Map<String, Object> sinTimestamp(Map<?, ?> datos) {
+        Map<String, Object> copia = new HashMap<>();
+        datos.forEach((clave, valor) -> copia.put(String.valueOf(clave), valor));
+        copia.remove("timestamp");
+        return copia;
+    }
+    
+    private static LocalDateTime fechaLegado(Map<?, ?> datos) {
+        try {
+            return LocalDateTime.parse(String.valueOf(datos.get("timestamp")));
         } catch (Exception e) {
-            logger.error("Error al calcular puntuación total: {}", e.getMessage());
+            return LocalDateTime.now();
         }
     }
+    
+    private static Long comoLong(Object valor) {
+        return valor instanceof Number numero ? numero.longValue() : null;
+    }
+    
+    private static double valor(Double numero) {
+        return numero != null ? numero : 0.0;
+    }
 }
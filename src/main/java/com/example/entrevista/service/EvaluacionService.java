@@ -1,5 +1,7 @@
 package com.example.entrevista.service;
 
+import com.example.entrevista.DTO.EvaluacionEventoDTO;
+import com.example.entrevista.DTO.PaginaResponse;
 import com.example.entrevista.DTO.EvaluacionRequest;
 import com.example.entrevista.DTO.EvaluacionResponse;
 import com.example.entrevista.model.Evaluacion;
@@ -8,26 +10,47 @@ import com.example.entrevista.model.Pregunta;
 import com.example.entrevista.repository.EvaluacionRepository;
 import com.example.entrevista.repository.PostulacionRepository;
 import com.example.entrevista.repository.PreguntaRepository;
+import com.example.entrevista.util.PlanificadorLlm.Prioridad;
+import com.example.entrevista.util.ExtractorEvaluacionParcial;
+import com.example.entrevista.util.HashUtil;
+import com.example.entrevista.util.PaginacionKeyset;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class EvaluacionService {
 
-    private final WebClient webClient;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Logger logger = LoggerFactory.getLogger(EvaluacionService.class);
 
-    @Value("${openai.api.key}")
-    private String openaiApiKey;
+    // Cliente del LLM con pool, deadlines, reintentos y circuit breaker
+    private final OpenAIService openAIService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Autowired
     private EvaluacionRepository evaluacionRepository;
@@ -38,14 +61,36 @@ public class EvaluacionService {
     @Autowired
     private PreguntaRepository preguntaRepository;
 
-    public EvaluacionService(WebClient openAIWebClient) {
-        this.webClient = openAIWebClient;
+    @Autowired
+    private CacheResultadosService cacheResultados;
+
+    @Autowired
+    private Scheduler llmScheduler;
+
+    // Preguntas por prompt en la evaluación en lote: más preguntas ahorran llamadas pero alargan la respuesta
+    @Value("${openai.evaluacion.lote.max-preguntas:5}")
+    private int maxPreguntasPorLote;
+
+    // Memo de llamadas al LLM: reintentos y envíos duplicados comparten una sola llamada en vuelo
+    private final AsyncCache<String, Map<String, Object>> memoEvaluaciones;
+
+    public EvaluacionService(OpenAIService openAIService,
+                             @Value("${app.cache.evaluaciones.max-entradas:10000}") long maxEntradas,
+                             @Value("${app.cache.evaluaciones.ttl:30m}") Duration ttl,
+                             MeterRegistry meterRegistry) {
+        this.openAIService = openAIService;
+        this.memoEvaluaciones = Caffeine.newBuilder()
+            .maximumSize(maxEntradas)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, memoEvaluaciones.synchronous(), "evaluaciones.memo");
     }
 
     public EvaluacionResponse evaluarPregunta(EvaluacionRequest request) {
         String prompt = construirPrompt(request.getPuesto(), request.getQuestion(), request.getAnswer(), request.getValorPregunta());
 
-        Map<String, Object> response = enviarAOpenAIConTokens(prompt);
+        Map<String, Object> response = enviarAOpenAIConTokens(prompt, calcularClaveMemo(request));
 
         if (response == null || response.isEmpty()) {
             return EvaluacionResponse.error("No se pudo obtener respuesta de la API.");
@@ -61,79 +106,36 @@ public class EvaluacionService {
         Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
         String content = (String) message.get("content");
 
+        return procesarEvaluacion(request, content);
+    }
+
+    /**
+     * Interpreta la evaluación JSON del LLM, la asocia a su pregunta y postulación y la guarda.
+     * Compartido por la evaluación directa y la evaluación en streaming.
+     */
+    private EvaluacionResponse procesarEvaluacion(EvaluacionRequest request, String content) {
         try {
             // Parsear el JSON de la respuesta para extraer los detalles de evaluación
             Map<String, Object> evaluacionDetallada = objectMapper.readValue(content, Map.class);
             
-            // Obtener los valores numéricos de la evaluación
-            Integer claridadEstructura = (Integer) evaluacionDetallada.get("claridad_estructura");
-            Integer dominioTecnico = (Integer) evaluacionDetallada.get("dominio_tecnico");
-            Integer pertinencia = (Integer) evaluacionDetallada.get("pertinencia");
-            Integer comunicacionSeguridad = (Integer) evaluacionDetallada.get("comunicacion_seguridad");
-            
-            // Extraer las listas de fortalezas y oportunidades de mejora
-            @SuppressWarnings("unchecked")
-            List<String> fortalezas = (List<String>) evaluacionDetallada.get("fortalezas");
-            @SuppressWarnings("unchecked")
-            List<String> oportunidadesMejora = (List<String>) evaluacionDetallada.get("oportunidades_mejora");
-            
-            // Calcular puntaje total y porcentaje (con máximo 2 decimales)
-            double puntajeTotal = Math.round((claridadEstructura + dominioTecnico + pertinencia + comunicacionSeguridad) / 4.0 * 100) / 100.0;
-            double porcentajeObtenido = Math.round((puntajeTotal * request.getValorPregunta()) / 100.0 * 100) / 100.0;
-            
-            // Asegurarse que el porcentaje obtenido no supere el valor máximo de la pregunta
-            porcentajeObtenido = Math.min(porcentajeObtenido, request.getValorPregunta());
-            
-            // Crear y configurar la respuesta
-            EvaluacionResponse evaluacionResponse = new EvaluacionResponse();
-            evaluacionResponse.setSuccess(true);
-            evaluacionResponse.setPregunta(request.getQuestion());
-            evaluacionResponse.setRespuesta(request.getAnswer());
-            evaluacionResponse.setFechaEvaluacion(new Date());
-            evaluacionResponse.setMensaje("Evaluación completada exitosamente");
-            
-            // Configurar los datos de evaluación estructurados
-            evaluacionResponse.setEvaluacionData(
-                claridadEstructura,
-                dominioTecnico,
-                pertinencia,
-                comunicacionSeguridad,
-                puntajeTotal,
-                porcentajeObtenido,
-                fortalezas,
-                oportunidadesMejora,
-                evaluacionDetallada
-            );
-            
-            if (request.getIdPostulacion() != null) {
-                evaluacionResponse.setPostulacionId(request.getIdPostulacion());
-            }
-
-            // Crear y guardar la entidad Evaluacion
-            Evaluacion evaluacion = new Evaluacion();
-            evaluacion.setFechaEvaluacion(new Date());
-            evaluacion.setEvaluacionCompleta(content);
-            evaluacion.setRespuesta(request.getAnswer());
-            evaluacion.setEstado("completada");
-            
-            // Guardar las métricas de evaluación
-            evaluacion.setClaridadEstructura(claridadEstructura);
-            evaluacion.setDominioTecnico(dominioTecnico);
-            evaluacion.setPertinencia(pertinencia);
-            evaluacion.setComunicacionSeguridad(comunicacionSeguridad);
-            evaluacion.setPuntajeTotal(puntajeTotal);
-            evaluacion.setPorcentajeObtenido(porcentajeObtenido);
+            ResultadoEvaluacion resultado = construirResultado(request, evaluacionDetallada, content);
+            EvaluacionResponse evaluacionResponse = resultado.response;
+            Evaluacion evaluacion = resultado.evaluacion;
 
             // Buscar y establecer la relación con la Pregunta
-            Long preguntaId = null;
-            
-            // Buscar la pregunta por su texto si no tenemos el ID explícito
-            List<Pregunta> preguntas = preguntaRepository.findByTextoPregunta(request.getQuestion());
-            if (!preguntas.isEmpty()) {
-                Pregunta pregunta = preguntas.get(0);
-                preguntaId = pregunta.getId();
+            Pregunta pregunta = null;
+            if (request.getPreguntaId() != null) {
+                pregunta = preguntaRepository.findById(request.getPreguntaId()).orElse(null);
+            } else {
+                // Buscar la pregunta por su texto si no tenemos el ID explícito
+                List<Pregunta> preguntas = preguntaRepository.findByTextoPregunta(request.getQuestion());
+                if (!preguntas.isEmpty()) {
+                    pregunta = preguntas.get(0);
+                }
+            }
+            if (pregunta != null) {
                 evaluacion.setPregunta(pregunta);
-                evaluacionResponse.setPreguntaId(preguntaId);
+                evaluacionResponse.setPreguntaId(pregunta.getId());
             }
 
             // Establecer la relación con la Postulación
@@ -142,9 +144,12 @@ public class EvaluacionService {
                 postulacionOpt.ifPresent(evaluacion::setPostulacion);
             }
 
-            // Guardar la evaluación en la base de datos
-            Evaluacion evaluacionGuardada = evaluacionRepository.save(evaluacion);
-            evaluacionResponse.setId(evaluacionGuardada.getId());
+            // Guardar la evaluación junto con los acumulados de la postulación
+            evaluacionRepository.insertarEnLote(List.of(evaluacion));
+            evaluacionResponse.setId(evaluacion.getId());
+            if (evaluacion.getPostulacion() != null) {
+                cacheResultados.invalidar(evaluacion.getPostulacion().getId());
+            }
 
             return evaluacionResponse;
 
@@ -153,6 +158,268 @@ public class EvaluacionService {
         }
     }
 
+    /**
+     * Variante en streaming de evaluarPregunta: emite los puntajes por criterio y cada fortaleza
+     * u oportunidad de mejora en cuanto llegan del LLM. Al terminar el stream guarda la Evaluacion
+     * y emite un evento "evaluacion" con el mismo EvaluacionResponse del endpoint normal.
+     */
+    public Flux<EvaluacionEventoDTO> evaluarPreguntaStream(EvaluacionRequest request) {
+        String prompt = construirPrompt(request.getPuesto(), request.getQuestion(), request.getAnswer(), request.getValorPregunta());
+        String claveMemo = calcularClaveMemo(request);
+
+        return Flux.defer(() -> {
+            ExtractorEvaluacionParcial extractor = new ExtractorEvaluacionParcial();
+
+            // Si la misma respuesta ya se evaluó, se reproduce desde el memo sin llamar al LLM
+            String memorizado = contenidoMemorizado(claveMemo);
+            Flux<String> fragmentos = memorizado != null ? Flux.just(memorizado) : openAIService.completarEnStreaming(prompt);
+
+            return fragmentos
+                .concatMapIterable(extractor::agregar)
+                .concatWith(Mono.fromCallable(() -> {
+                        EvaluacionResponse respuesta = procesarEvaluacion(request, extractor.getContenido());
+                        if (respuesta.isSuccess() && memorizado == null) {
+                            memoEvaluaciones.put(claveMemo, CompletableFuture.<Map<String, Object>>completedFuture(Map.of(
+                                "choices", List.of(Map.of("message", Map.of("content", extractor.getContenido()))))));
+                        }
+                        return new EvaluacionEventoDTO("evaluacion", respuesta);
+                    })
+                    .subscribeOn(llmScheduler));
+        });
+    }
+
+    private String contenidoMemorizado(String claveMemo) {
+        CompletableFuture<Map<String, Object>> memo = memoEvaluaciones.getIfPresent(claveMemo);
+        if (memo == null || !memo.isDone() || memo.isCompletedExceptionally()) {
+            return null;
+        }
+        return extraerContenido(memo.join());
+    }
+
+    private String calcularClaveMemo(EvaluacionRequest request) {
+        return HashUtil.sha256(
+            openAIService.getModelo(),
+            HashUtil.normalizar(request.getPuesto()),
+            HashUtil.normalizar(request.getQuestion()),
+            HashUtil.normalizar(request.getAnswer()),
+            String.valueOf(request.getValorPregunta()));
+    }
+
+    /**
+     * Evalúa todas las respuestas de una postulación agrupándolas en uno o pocos prompts.
+     * Los lotes se envían en paralelo (respetando el cupo del upstream) y las evaluaciones
+     * válidas se guardan con un único batch JDBC. Devuelve una respuesta por cada request, en el mismo orden.
+     */
+    public List<EvaluacionResponse> evaluarLote(Long postulacionId, List<EvaluacionRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+
+        List<List<EvaluacionRequest>> lotes = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i += maxPreguntasPorLote) {
+            lotes.add(requests.subList(i, Math.min(i + maxPreguntasPorLote, requests.size())));
+        }
+        logger.info("Evaluando {} respuestas de la postulación {} en {} llamada(s) al LLM", requests.size(), postulacionId, lotes.size());
+
+        List<List<Map<String, Object>>> detallesPorLote = Flux.fromIterable(lotes)
+            .flatMapSequential(this::evaluarLoteEnOpenAI, lotes.size())
+            .collectList()
+            .block();
+
+        Map<Long, Pregunta> preguntas = new HashMap<>();
+        List<Long> preguntaIds = requests.stream().map(EvaluacionRequest::getPreguntaId).filter(Objects::nonNull).toList();
+        preguntaRepository.findAllById(preguntaIds).forEach(p -> preguntas.put(p.getId(), p));
+        Postulacion postulacion = postulacionRepository.findById(postulacionId).orElse(null);
+
+        List<EvaluacionResponse> respuestas = new ArrayList<>();
+        List<ResultadoEvaluacion> aGuardar = new ArrayList<>();
+        for (int l = 0; l < lotes.size(); l++) {
+            List<EvaluacionRequest> lote = lotes.get(l);
+            List<Map<String, Object>> detalles = detallesPorLote.get(l);
+            for (int i = 0; i < lote.size(); i++) {
+                EvaluacionRequest request = lote.get(i);
+                Map<String, Object> detalle = detalles.get(i);
+                EvaluacionResponse respuesta;
+                if (detalle == null) {
+                    respuesta = EvaluacionResponse.error("No se obtuvo evaluación para esta respuesta.");
+                } else {
+                    try {
+                        String content = objectMapper.writeValueAsString(detalle);
+                        ResultadoEvaluacion resultado = construirResultado(request, detalle, content);
+                        resultado.evaluacion.setPregunta(preguntas.get(request.getPreguntaId()));
+                        resultado.evaluacion.setPostulacion(postulacion);
+                        aGuardar.add(resultado);
+                        respuesta = resultado.response;
+                    } catch (Exception e) {
+                        respuesta = EvaluacionResponse.error("Error al interpretar la evaluación: " + e.getMessage());
+                    }
+                }
+                respuesta.setPreguntaId(request.getPreguntaId());
+                respuesta.setPostulacionId(postulacionId);
+                respuestas.add(respuesta);
+            }
+        }
+
+        List<Evaluacion> evaluaciones = aGuardar.stream().map(r -> r.evaluacion).toList();
+        evaluacionRepository.insertarEnLote(evaluaciones);
+        aGuardar.forEach(r -> r.response.setId(r.evaluacion.getId()));
+        cacheResultados.invalidar(postulacionId);
+
+        return respuestas;
+    }
+
+    /**
+     * Envía un lote al LLM y devuelve las evaluaciones alineadas con el lote;
+     * las posiciones sin evaluación válida quedan en null.
+     */
+    private Mono<List<Map<String, Object>>> evaluarLoteEnOpenAI(List<EvaluacionRequest> lote) {
+        String prompt = construirPromptLote(lote.get(0).getPuesto(), lote);
+        return llamarOpenAI(prompt)
+            .map(response -> interpretarLote(extraerContenido(response), lote.size()))
+            .onErrorResume(e -> {
+                logger.error("Error al evaluar un lote de {} respuestas: {}", lote.size(), e.getMessage());
+                return Mono.just(Collections.<Map<String, Object>>nCopies(lote.size(), null));
+            });
+    }
+
+    private List<Map<String, Object>> interpretarLote(String content, int tamanio) {
+        List<Map<String, Object>> detalles = new ArrayList<>(Collections.<Map<String, Object>>nCopies(tamanio, null));
+        if (content == null) {
+            return detalles;
+        }
+        try {
+            String json = content.trim();
+            // El modelo a veces envuelve el JSON en un bloque de código markdown
+            if (json.startsWith("```")) {
+                json = json.substring(json.indexOf('\n') + 1, json.lastIndexOf("```")).trim();
+            }
+            List<Map<String, Object>> items = objectMapper.readValue(json, new TypeReference<List<Map<String, Object>>>() {});
+            for (int i = 0; i < items.size(); i++) {
+                Map<String, Object> item = new LinkedHashMap<>(items.get(i));
+                // Se usa "indice" si viene; si no, la posición en el arreglo
+                Object indice = item.remove("indice");
+                int posicion = indice instanceof Number numero ? numero.intValue() - 1 : i;
+                if (posicion >= 0 && posicion < tamanio && detalles.get(posicion) == null) {
+                    detalles.set(posicion, item);
+                }
+            }
+            if (items.size() != tamanio) {
+                logger.warn("El LLM devolvió {} evaluaciones para un lote de {}", items.size(), tamanio);
+            }
+        } catch (Exception e) {
+            logger.error("No se pudo parsear la evaluación en lote: {}", e.getMessage());
+        }
+        return detalles;
+    }
+
+    @SuppressWarnings("unchecked")
+    private String extraerContenido(Map<String, Object> response) {
+        List<Map<String, Object>> choices = (List<Map<String, Object>>) response.get("choices");
+        if (choices == null || choices.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
+        return message != null ? (String) message.get("content") : null;
+    }
+
+    /**
+     * Convierte la evaluación devuelta por el LLM en la respuesta del API y en la entidad a persistir.
+     * Compartido por la evaluación individual y la evaluación en lote.
+     */
+    private ResultadoEvaluacion construirResultado(EvaluacionRequest request, Map<String, Object> evaluacionDetallada, String content) {
+        // Obtener los valores numéricos de la evaluación
+        Integer claridadEstructura = (Integer) evaluacionDetallada.get("claridad_estructura");
+        Integer dominioTecnico = (Integer) evaluacionDetallada.get("dominio_tecnico");
+        Integer pertinencia = (Integer) evaluacionDetallada.get("pertinencia");
+        Integer comunicacionSeguridad = (Integer) evaluacionDetallada.get("comunicacion_seguridad");
+        
+        // Extraer las listas de fortalezas y oportunidades de mejora
+        @SuppressWarnings("unchecked")
+        List<String> fortalezas = (List<String>) evaluacionDetallada.get("fortalezas");
+        @SuppressWarnings("unchecked")
+        List<String> oportunidadesMejora = (List<String>) evaluacionDetallada.get("oportunidades_mejora");
+        
+        // Calcular puntaje total y porcentaje (con máximo 2 decimales)
+        double puntajeTotal = Math.round((claridadEstructura + dominioTecnico + pertinencia + comunicacionSeguridad) / 4.0 * 100) / 100.0;
+        double porcentajeObtenido = Math.round((puntajeTotal * request.getValorPregunta()) / 100.0 * 100) / 100.0;
+        
+        // Asegurarse que el porcentaje obtenido no supere el valor máximo de la pregunta
+        porcentajeObtenido = Math.min(porcentajeObtenido, request.getValorPregunta());
+        
+        // Crear y configurar la respuesta
+        EvaluacionResponse evaluacionResponse = new EvaluacionResponse();
+        evaluacionResponse.setSuccess(true);
+        evaluacionResponse.setPregunta(request.getQuestion());
+        evaluacionResponse.setRespuesta(request.getAnswer());
+        evaluacionResponse.setFechaEvaluacion(new Date());
+        evaluacionResponse.setMensaje("Evaluación completada exitosamente");
+        
+        // Configurar los datos de evaluación estructurados
+        evaluacionResponse.setEvaluacionData(
+            claridadEstructura,
+            dominioTecnico,
+            pertinencia,
+            comunicacionSeguridad,
+            puntajeTotal,
+            porcentajeObtenido,
+            fortalezas,
+            oportunidadesMejora,
+            evaluacionDetallada
+        );
+        
+        if (request.getIdPostulacion() != null) {
+            evaluacionResponse.setPostulacionId(request.getIdPostulacion());
+        }
+
+        // Crear la entidad Evaluacion (la persistencia la decide quien llama)
+        Evaluacion evaluacion = new Evaluacion();
+        evaluacion.setFechaEvaluacion(new Date());
+        evaluacion.setEvaluacionCompleta(content);
+        evaluacion.setRespuesta(request.getAnswer());
+        evaluacion.setEstado("completada");
+        
+        // Guardar las métricas de evaluación
+        evaluacion.setClaridadEstructura(claridadEstructura);
+        evaluacion.setDominioTecnico(dominioTecnico);
+        evaluacion.setPertinencia(pertinencia);
+        evaluacion.setComunicacionSeguridad(comunicacionSeguridad);
+        evaluacion.setPuntajeTotal(puntajeTotal);
+        evaluacion.setPorcentajeObtenido(porcentajeObtenido);
+
+        return new ResultadoEvaluacion(evaluacionResponse, evaluacion);
+    }
+
+    private static class ResultadoEvaluacion {
+        private final EvaluacionResponse response;
+        private final Evaluacion evaluacion;
+
+        private ResultadoEvaluacion(EvaluacionResponse response, Evaluacion evaluacion) {
+            this.response = response;
+            this.evaluacion = evaluacion;
+        }
+    }
+
+    // Criterios comunes a la evaluación individual y a la evaluación en lote
+    private static final String CRITERIOS_EVALUACION = """
+        INSTRUCCIONES CRÍTICAS:
+        - SÉ ESTRICTO: No seas benevolente. Evalúa con criterios profesionales altos.
+        - IDENTIFICA DEBILIDADES: Busca activamente problemas, vacíos de conocimiento, falta de ejemplos concretos.
+        - EXIGE PROFUNDIDAD: Una respuesta superficial debe ser penalizada severamente.
+        - NO PREMIES RESPUESTAS GENÉRICAS: Las respuestas vagas o sin ejemplos específicos deben tener puntuaciones bajas.
+
+        Analiza la respuesta según estos criterios (valores entre 1 y 100):
+        - claridad_estructura: ¿La respuesta está bien organizada y es fácil de seguir? (Penaliza si es confusa o desordenada)
+        - dominio_tecnico: ¿Demuestra conocimiento profundo y correcto? (Penaliza respuestas superficiales o incorrectas)
+        - pertinencia: ¿Responde directamente la pregunta sin divagar? (Penaliza si se va por las ramas)
+        - comunicacion_seguridad: ¿Se expresa con confianza y profesionalismo? (Penaliza dudas excesivas o falta de fluidez)
+
+        Para fortalezas y oportunidades_mejora:
+        - OBLIGATORIO: Siempre incluir MÍNIMO 2 fortalezas Y MÍNIMO 3 oportunidades de mejora
+        - Las fortalezas deben ser específicas y justificadas
+        - Las oportunidades de mejora deben ser CONCRETAS y ACCIONABLES
+        - Si la respuesta es mala, sé más específico en las críticas
+        """;
+
     private String construirPrompt(String puesto, String pregunta, String respuesta, int valorPregunta) {
         return """
             Eres un evaluador ESTRICTO y EXIGENTE de entrevistas laborales con más de 15 años de experiencia. Debes ser RIGUROSO en tu evaluación.
@@ -163,24 +430,7 @@ public class EvaluacionService {
             Respuesta: %s
             Valor de la pregunta: %d puntos (Este es el puntaje máximo posible para esta pregunta)
 
-            INSTRUCCIONES CRÍTICAS:
-            - SÉ ESTRICTO: No seas benevolente. Evalúa con criterios profesionales altos.
-            - IDENTIFICA DEBILIDADES: Busca activamente problemas, vacíos de conocimiento, falta de ejemplos concretos.
-            - EXIGE PROFUNDIDAD: Una respuesta superficial debe ser penalizada severamente.
-            - NO PREMIES RESPUESTAS GENÉRICAS: Las respuestas vagas o sin ejemplos específicos deben tener puntuaciones bajas.
-
-            Analiza la respuesta según estos criterios (valores entre 1 y 100):
-            - claridad_estructura: ¿La respuesta está bien organizada y es fácil de seguir? (Penaliza si es confusa o desordenada)
-            - dominio_tecnico: ¿Demuestra conocimiento profundo y correcto? (Penaliza respuestas superficiales o incorrectas)
-            - pertinencia: ¿Responde directamente la pregunta sin divagar? (Penaliza si se va por las ramas)
-            - comunicacion_seguridad: ¿Se expresa con confianza y profesionalismo? (Penaliza dudas excesivas o falta de fluidez)
-
-            Para fortalezas y oportunidades_mejora:
-            - OBLIGATORIO: Siempre incluir MÍNIMO 2 fortalezas Y MÍNIMO 3 oportunidades de mejora
-            - Las fortalezas deben ser específicas y justificadas
-            - Las oportunidades de mejora deben ser CONCRETAS y ACCIONABLES
-            - Si la respuesta es mala, sé más específico en las críticas
-
+            %s
             IMPORTANTE: El puntaje final se calculará como un porcentaje del valor de la pregunta (%d puntos).
             Tu calificación debe ser justa y nunca exceder el valor máximo de la pregunta.
 
@@ -193,42 +443,87 @@ public class EvaluacionService {
               "fortalezas": ["fortaleza específica 1", "fortaleza específica 2"],
               "oportunidades_mejora": ["mejora concreta 1", "mejora concreta 2", "mejora concreta 3"]
             }
-            """.formatted(puesto, pregunta, respuesta, valorPregunta, valorPregunta);
+            """.formatted(puesto, pregunta, respuesta, valorPregunta, CRITERIOS_EVALUACION, valorPregunta);
+    }
+
+    private String construirPromptLote(String puesto, List<EvaluacionRequest> lote) {
+        StringBuilder bloques = new StringBuilder();
+        for (int i = 0; i < lote.size(); i++) {
+            EvaluacionRequest item = lote.get(i);
+            bloques.append("""
+                Pregunta %d: %s
+                Respuesta %d: %s
+                Valor de la pregunta %d: %d puntos (Este es el puntaje máximo posible para esta pregunta)
+
+                """.formatted(i + 1, item.getQuestion(), i + 1, item.getAnswer(), i + 1, item.getValorPregunta()));
+        }
+
+        return """
+            Eres un evaluador ESTRICTO y EXIGENTE de entrevistas laborales con más de 15 años de experiencia. Debes ser RIGUROSO en tu evaluación.
+
+            Evalúa por separado cada una de las siguientes %d respuestas de un candidato al puesto de "%s".
+            Cada respuesta se califica de forma independiente: no compares unas respuestas con otras.
+
+            %s%s
+            IMPORTANTE: El puntaje final de cada pregunta se calculará como un porcentaje de su propio valor.
+            Tu calificación debe ser justa y nunca exceder el valor máximo de cada pregunta.
+
+            Responde ÚNICAMENTE con un arreglo JSON de exactamente %d objetos, uno por pregunta y en el mismo orden, con este formato:
+            [
+              {
+                "indice": 1,
+                "claridad_estructura": 0,
+                "dominio_tecnico": 0,
+                "pertinencia": 0,
+                "comunicacion_seguridad": 0,
+                "fortalezas": ["fortaleza específica 1", "fortaleza específica 2"],
+                "oportunidades_mejora": ["mejora concreta 1", "mejora concreta 2", "mejora concreta 3"]
+              }
+            ]
+            """.formatted(lote.size(), puesto, bloques, CRITERIOS_EVALUACION, lote.size());
     }
 
-    private Map<String, Object> enviarAOpenAIConTokens(String prompt) {
+    /**
+     * Llama al LLM a través del memo: las peticiones concurrentes con la misma clave esperan
+     * la misma llamada. Solo se memorizan respuestas con una evaluación JSON válida; los errores
+     * no quedan en caché (Caffeine descarta los futuros que terminan en excepción).
+     */
+    private Map<String, Object> enviarAOpenAIConTokens(String prompt, String claveMemo) {
         try {
-            // Configuración de la solicitud
-            Map<String, Object> body = Map.of(
-                "model", "gpt-3.5-turbo",
-                "messages", List.of(
-                    Map.of("role", "user", "content", prompt)
-                ),
-                "temperature", 0.7
-            );
-
-            // Envía la solicitud a la API de OpenAI
-            Map<String, Object> response = webClient.post()
-                .uri("/chat/completions")
-                .header("Content-Type", "application/json")
-                .header("Authorization", "Bearer " + openaiApiKey)
-                .bodyValue(body)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .block();
-                
-            return response;
+            return memoEvaluaciones.get(claveMemo, (clave, executor) -> llamarOpenAI(prompt)
+                    .flatMap(response -> esEvaluacionValida(response)
+                        ? Mono.just(response)
+                        : Mono.<Map<String, Object>>error(new IllegalStateException("La API devolvió una evaluación no válida")))
+                    .toFuture())
+                .join();
         } catch (Exception e) {
-            // Log the error
-            System.err.println("Error al llamar a la API de OpenAI: " + e.getMessage());
-            // Return an empty map or throw a more specific exception
-            return Map.of("error", e.getMessage());
+            Throwable causa = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            logger.error("Error al llamar a la API de OpenAI: {}", causa.getMessage(), causa);
+            return Map.of("error", String.valueOf(causa.getMessage()));
         }
     }
+
+    private boolean esEvaluacionValida(Map<String, Object> response) {
+        String content = extraerContenido(response);
+        if (content == null) {
+            return false;
+        }
+        try {
+            objectMapper.readValue(content, Map.class);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private Mono<Map<String, Object>> llamarOpenAI(String prompt) {
+        // Las evaluaciones las espera un usuario: nunca ceden turno a trabajo en segundo plano
+        return openAIService.completar(prompt, Prioridad.INTERACTIVA);
+    }
     
     // Métodos adicionales para consultar resultados
     public List<Evaluacion> obtenerEvaluacionesPorPostulacion(Long postulacionId) {
-        return evaluacionRepository.findByPostulacionId(postulacionId);
+        return evaluacionRepository.findDetalleByPostulacionId(postulacionId);
     }
     
     public List<Evaluacion> obtenerEvaluacionesPorPregunta(Long preguntaId) {
@@ -238,4 +533,10 @@ public class EvaluacionService {
     public List<Evaluacion> obtenerEvaluacionesPorEntrevista(Long entrevistaId) {
         return evaluacionRepository.findByEntrevistaId(entrevistaId);
     }
+
+    // Página por cursor; lanza IllegalArgumentException si el cursor no es válido
+    public PaginaResponse<Evaluacion> paginarEvaluacionesPorEntrevista(Long entrevistaId, String cursor, Integer limite) {
+        return PaginacionKeyset.pagina(evaluacionRepository.findByPostulacionConvocatoriaEmpresaIdOrderByIdAsc(
+            entrevistaId, PaginacionKeyset.posicion(cursor), PaginacionKeyset.limite(limite)), Evaluacion::getId);
+    }
 }
@@ -0,0 +1,258 @@
+package com.example.entrevista.service;
+
+import com.example.entrevista.util.CircuitBreaker;
+import com.example.entrevista.util.PlanificadorLlm;
+import com.example.entrevista.util.PlanificadorLlm.Prioridad;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Cliente del LLM compartido por PreguntaService y EvaluacionService.
+ *
+ * Cada llamada pasa por: circuit breaker -> planificador (cupo, RPM/TPM y prioridad) -> deadline por llamada,
+ * y se reintenta con backoff exponencial con jitter ante 429/5xx/timeouts, respetando Retry-After.
+ */
+@Service
+public class OpenAIService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenAIService.class);
+
+    private final WebClient webClient;
+    private final PlanificadorLlm planificador;
+    private final CircuitBreaker circuitBreaker;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String apiKey;
+    private final String modelo;
+    private final Duration deadline;
+    private final Duration inactividadStream;
+    private final int maxReintentos;
+    private final Duration esperaBase;
+    private final Duration esperaMaxima;
+    private final int tokensRespuestaEstimados;
+
+    public OpenAIService(WebClient openAIWebClient,
+                         PlanificadorLlm openAIPlanificador,
+                         MeterRegistry meterRegistry,
+                         @Value("${openai.api.key}") String apiKey,
+                         @Value("${openai.modelo:gpt-3.5-turbo}") String modelo,
+                         @Value("${openai.timeout.llamada:60s}") Duration deadline,
+                         @Value("${openai.timeout.inactividad-stream:20s}") Duration inactividadStream,
+                         @Value("${openai.reintentos.max:3}") int maxReintentos,
+                         @Value("${openai.reintentos.espera-base:500ms}") Duration esperaBase,
+                         @Value("${openai.reintentos.espera-maxima:20s}") Duration esperaMaxima,
+                         @Value("${openai.circuito.umbral-fallos:5}") int umbralFallos,
+                         @Value("${openai.circuito.tiempo-abierto:30s}") Duration tiempoAbierto,
+                         @Value("${openai.limites.tokens-respuesta-estimados:1000}") int tokensRespuestaEstimados) {
+        this.webClient = openAIWebClient;
+        this.planificador = openAIPlanificador;
+        this.tokensRespuestaEstimados = tokensRespuestaEstimados;
+        this.apiKey = apiKey;
+        this.modelo = modelo;
+        this.deadline = deadline;
+        this.inactividadStream = inactividadStream;
+        this.maxReintentos = maxReintentos;
+        this.esperaBase = esperaBase;
+        this.esperaMaxima = esperaMaxima;
+        this.circuitBreaker = new CircuitBreaker("openai", umbralFallos, tiempoAbierto, OpenAIService::esFalloDelUpstream);
+
+        Gauge.builder("llm.upstream.circuito.abierto", circuitBreaker, cb -> cb.getEstado() == CircuitBreaker.Estado.ABIERTO ? 1 : 0)
+            .description("1 si el circuit breaker hacia el LLM está abierto")
+            .tag("upstream", "openai")
+            .register(meterRegistry);
+    }
+
+    public String getModelo() {
+        return modelo;
+    }
+
+    public CircuitBreaker.Estado getEstadoCircuito() {
+        return circuitBreaker.getEstado();
+    }
+
+    /**
+     * Completion de chat con un único mensaje de usuario; devuelve el JSON de respuesta completo.
+     */
+    public Mono<Map<String, Object>> completar(String prompt) {
+        return completar(prompt, Prioridad.INTERACTIVA);
+    }
+
+    /**
+     * Igual que {@link #completar(String)}, indicando la prioridad con la que espera turno
+     * (el trabajo en segundo plano cede el paso a las peticiones de usuarios).
+     */
+    public Mono<Map<String, Object>> completar(String prompt, Prioridad prioridad) {
+        Mono<Map<String, Object>> llamada = webClient.post()
+            .uri("/chat/completions")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(construirCuerpo(prompt, false))
+            .retrieve()
+            .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+            .timeout(deadline);
+
+        Mono<Map<String, Object>> planificada = planificador.ejecutar(prioridad, estimarTokens(prompt),
+            permiso -> llamada.doOnNext(respuesta -> permiso.registrarTokensReales(tokensUsados(respuesta))));
+
+        return circuitBreaker.proteger(planificada)
+            .retryWhen(politicaReintentos(() -> true));
+    }
+
+    /**
+     * Completion en streaming: emite los fragmentos de texto (choices[0].delta.content) en orden.
+     * Solo se reintenta si el stream falla antes de emitir el primer fragmento.
+     */
+    public Flux<String> completarEnStreaming(String prompt) {
+        return completarEnStreaming(prompt, Prioridad.INTERACTIVA);
+    }
+
+    public Flux<String> completarEnStreaming(String prompt, Prioridad prioridad) {
+        return Flux.defer(() -> {
+            AtomicBoolean emitido = new AtomicBoolean();
+
+            Flux<String> llamada = webClient.post()
+                .uri("/chat/completions")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(construirCuerpo(prompt, true))
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .timeout(inactividadStream)
+                .mapNotNull(ServerSentEvent::data)
+                .takeWhile(data -> !"[DONE]".equals(data.trim()))
+                .mapNotNull(this::extraerDelta);
+
+            return circuitBreaker.proteger(planificador.ejecutarFlux(prioridad, estimarTokens(prompt), permiso -> llamada))
+                .doOnNext(fragmento -> emitido.set(true))
+                .retryWhen(politicaReintentos(() -> !emitido.get()));
+        });
+    }
+
+    private Map<String, Object> construirCuerpo(String prompt, boolean stream) {
+        if (stream) {
+            return Map.of(
+                "model", modelo,
+                "messages", List.of(Map.of("role", "user", "content", prompt)),
+                "temperature", 0.7,
+                "stream", true
+            );
+        }
+        return Map.of(
+            "model", modelo,
+            "messages", List.of(Map.of("role", "user", "content", prompt)),
+            "temperature", 0.7
+        );
+    }
+
+    // Estimación previa para el bucket de tokens: ~4 caracteres por token más la respuesta esperada
+    private long estimarTokens(String prompt) {
+        return prompt.length() / 4L + tokensRespuestaEstimados;
+    }
+
+    private static long tokensUsados(Map<String, Object> respuesta) {
+        if (respuesta.get("usage") instanceof Map<?, ?> uso && uso.get("total_tokens") instanceof Number total) {
+            return total.longValue();
+        }
+        return 0;
+    }
+
+    // Cada evento del stream trae un fragmento del contenido en choices[0].delta.content
+    private String extraerDelta(String evento) {
+        try {
+            JsonNode contenido = objectMapper.readTree(evento).path("choices").path(0).path("delta").path("content");
+            return contenido.isTextual() ? contenido.asText() : null;
+        } catch (Exception e) {
+            logger.warn("Evento de streaming no válido: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private Retry politicaReintentos(BooleanSupplier puedeReintentar) {
+        return Retry.from(senales -> senales.concatMap(senal -> {
+            Throwable error = senal.failure();
+            long intento = senal.totalRetries() + 1;
+            if (intento > maxReintentos || !esReintentable(error) || !puedeReintentar.getAsBoolean()) {
+                return Mono.<Long>error(error);
+            }
+            Duration espera = retryAfter(error).orElseGet(() -> backoffConJitter(intento));
+            logger.warn("Reintento {}/{} hacia OpenAI en {} ms: {}", intento, maxReintentos, espera.toMillis(), error.toString());
+            return Mono.delay(espera);
+        }));
+    }
+
+    // Backoff exponencial con "full jitter": espera aleatoria entre 0 y base * 2^(intento-1)
+    private Duration backoffConJitter(long intento) {
+        long tope = Math.min(esperaMaxima.toMillis(), esperaBase.toMillis() * (1L << Math.min(intento - 1, 20)));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(tope + 1));
+    }
+
+    private Optional<Duration> retryAfter(Throwable error) {
+        if (!(error instanceof WebClientResponseException respuesta)) {
+            return Optional.empty();
+        }
+        String valor = respuesta.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (valor == null || valor.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            Duration espera = Duration.ofSeconds(Long.parseLong(valor.trim()));
+            return Optional.of(min(espera, esperaMaxima));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime fecha = ZonedDateTime.parse(valor.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration espera = Duration.between(ZonedDateTime.now(fecha.getZone()), fecha);
+                return Optional.of(min(espera.isNegative() ? Duration.ZERO : espera, esperaMaxima));
+            } catch (Exception ignorado) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static boolean esReintentable(Throwable error) {
+        if (error instanceof CircuitBreaker.CircuitoAbiertoException) {
+            return false;
+        }
+        return esFalloDelUpstream(error);
+    }
+
+    // 429, 5xx, timeouts y errores de conexión indican un upstream degradado; el resto de 4xx no
+    private static boolean esFalloDelUpstream(Throwable error) {
+        if (error instanceof WebClientResponseException respuesta) {
+            int status = respuesta.getStatusCode().value();
+            return status == 429 || status >= 500;
+        }
+        return error instanceof TimeoutException || error instanceof WebClientRequestException;
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.entrevista.service;
 
+import com.example.entrevista.DTO.PaginaResponse;
 import com.example.entrevista.model.EstadoPostulacion;
 import com.example.entrevista.model.Postulacion;
 import com.example.entrevista.model.Usuario;
 import com.example.entrevista.model.EntrevistaSession;
 import com.example.entrevista.repository.PostulacionRepository;
 import com.example.entrevista.repository.UsuarioRepository;
+import com.example.entrevista.util.PaginacionKeyset;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -24,6 +26,12 @@ public class PostulacionService {
     
     @Autowired
     private EntrevistaSessionService entrevistaSessionService; // Nuevo servicio
+
+    @Autowired
+    private PreGeneracionService preGeneracionService;
+
+    @Autowired
+    private CacheResultadosService cacheResultados;
     
     public Postulacion crearPostulacion(Postulacion postulacion) {
         // Aseguramos que toda nueva postulación comienza en estado PENDIENTE
@@ -44,7 +52,11 @@ public class PostulacionService {
         postulacion.setUsuario(usuarioCompleto);
         // --- FIN DE MODIFICACIÓN CLAVE ---
 
-        return postulacionRepository.save(postulacion);
+        Postulacion guardada = postulacionRepository.save(postulacion);
+
+        // Las preguntas se generan en segundo plano para que la entrevista empiece sin esperar al LLM
+        preGeneracionService.encolar(guardada.getId());
+        return guardada;
     }
 
     public List<Postulacion> listarPorUsuario(Long usuarioId) {
@@ -55,13 +67,19 @@ public class PostulacionService {
         return postulacionRepository.findByConvocatoriaId(convocatoriaId);
     }
 
+    // Página por cursor; lanza IllegalArgumentException si el cursor no es válido
+    public PaginaResponse<Postulacion> paginarPorConvocatoria(Long convocatoriaId, String cursor, Integer limite) {
+        return PaginacionKeyset.pagina(postulacionRepository.findByConvocatoriaIdOrderByIdAsc(
+            convocatoriaId, PaginacionKeyset.posicion(cursor), PaginacionKeyset.limite(limite)), Postulacion::getId);
+    }
+
     public Optional<Postulacion> buscarPorId(Long id) {
-        return postulacionRepository.findById(id);
+        return postulacionRepository.findDetalleById(id);
     }
     
     // Nuevos métodos para gestionar el estado
     public Postulacion actualizarEstado(Long id, EstadoPostulacion nuevoEstado) {
-        Postulacion postulacion = postulacionRepository.findById(id)
+        Postulacion postulacion = postulacionRepository.findDetalleById(id)
                 .orElseThrow(() -> new RuntimeException("Postulación no encontrada con ID: " + id));
 
         // Validar transición de estado
@@ -70,12 +88,19 @@ public class PostulacionService {
         }
 
         postulacion.setEstado(nuevoEstado);
-        return postulacionRepository.save(postulacion);
+        Postulacion actualizada = postulacionRepository.save(postulacion);
+        cacheResultados.invalidar(id);
+        return actualizada;
     }
     
     public List<Postulacion> listarPorEstado(EstadoPostulacion estado) {
         return postulacionRepository.findByEstado(estado);
     }
+
+    public PaginaResponse<Postulacion> paginarPorEstado(EstadoPostulacion estado, String cursor, Integer limite) {
+        return PaginacionKeyset.pagina(postulacionRepository.findByEstadoOrderByIdAsc(
+            estado, PaginacionKeyset.posicion(cursor), PaginacionKeyset.limite(limite)), Postulacion::getId);
+    }
     
     public List<Postulacion> listarPorUsuarioYEstado(Long usuarioId, EstadoPostulacion estado) {
         return postulacionRepository.findByUsuarioIdAndEstado(usuarioId, estado);
@@ -93,7 +118,9 @@ public class PostulacionService {
                     postulacion.setId(id);
                     // Asegurarse de que no modificamos el estado de generación de preguntas
                     postulacion.setPreguntasGeneradas(postulacionExistente.isPreguntasGeneradas());
-                    return postulacionRepository.save(postulacion);
+                    Postulacion actualizada = postulacionRepository.save(postulacion);
+                    cacheResultados.invalidar(id);
+                    return actualizada;
                 })
                 .orElseThrow(() -> new RuntimeException("Postulación no encontrada con ID: " + id));
     }
@@ -103,6 +130,7 @@ public class PostulacionService {
         // Verificar si existe la postulación antes de eliminarla
         if (postulacionRepository.existsById(id)) {
             postulacionRepository.deleteById(id);
+            cacheResultados.invalidar(id);
         } else {
             throw new RuntimeException("Postulación no encontrada con ID: " + id);
         }
@@ -119,7 +147,7 @@ public class PostulacionService {
 
     // En PostulacionService.java añade este nuevo método
     public Postulacion marcarPreguntasGeneradas(Long id, boolean generadas) {
-        Postulacion postulacion = postulacionRepository.findById(id)
+        Postulacion postulacion = postulacionRepository.findDetalleById(id)
                 .orElseThrow(() -> new RuntimeException("Postulación no encontrada con ID: " + id));
         
         postulacion.setPreguntasGeneradas(generadas);
@@ -128,6 +156,9 @@ public class PostulacionService {
     
     // Nuevo método para crear o recuperar EntrevistaSession
     public Long crearORecuperarEntrevistaSession(Long postulacionId) {
+        // Por si la pre-generación no llegó a lanzarse o falló (idempotente si ya terminó)
+        preGeneracionService.encolar(postulacionId);
+
         // Buscar si ya existe una sesión para esta postulación
         Optional<EntrevistaSession> sesionExistente = entrevistaSessionService.buscarPorPostulacion(postulacionId);
         
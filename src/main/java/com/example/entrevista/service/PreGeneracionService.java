@@ -0,0 +1,222 @@
+package com.example.entrevista.service;
+
+import com.example.entrevista.DTO.PreguntaRequest;
+import com.example.entrevista.DTO.PreguntaResponse;
+import com.example.entrevista.model.EstadoTrabajo;
+import com.example.entrevista.model.TrabajoPreGeneracion;
+import com.example.entrevista.repository.TrabajoPreGeneracionRepository;
+import com.example.entrevista.util.PlanificadorLlm.Prioridad;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-genera las preguntas de una postulación en segundo plano para que la entrevista empiece sin esperar al LLM.
+ *
+ * El estado de cada trabajo se guarda en trabajo_pregeneracion; un barrido periódico retoma los pendientes
+ * y los que quedaron EN_CURSO tras un reinicio. Las llamadas al LLM usan prioridad SEGUNDO_PLANO.
+ */
+@Service
+public class PreGeneracionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PreGeneracionService.class);
+
+    @Autowired
+    private TrabajoPreGeneracionRepository trabajoRepository;
+
+    @Autowired
+    private PreguntaService preguntaService;
+
+    private final boolean habilitada;
+    private final int maxIntentos;
+    private final Duration timeoutGeneracion;
+    private final Duration timeoutEnCurso;
+
+    // Pool acotado propio: no se expone como bean para no reemplazar el applicationTaskExecutor de Spring Boot
+    private final ThreadPoolExecutor executor;
+
+    // Trabajos ya enviados al pool, para que el barrido no los encole dos veces
+    private final Set<Long> encolados = ConcurrentHashMap.newKeySet();
+
+    public PreGeneracionService(@Value("${app.pregeneracion.habilitada:true}") boolean habilitada,
+                                @Value("${app.pregeneracion.hilos:2}") int hilos,
+                                @Value("${app.pregeneracion.capacidad-cola:200}") int capacidadCola,
+                                @Value("${app.pregeneracion.max-intentos:3}") int maxIntentos,
+                                @Value("${app.pregeneracion.timeout:5m}") Duration timeoutGeneracion,
+                                @Value("${app.pregeneracion.timeout-en-curso:15m}") Duration timeoutEnCurso,
+                                MeterRegistry meterRegistry) {
+        this.habilitada = habilitada;
+        this.maxIntentos = maxIntentos;
+        this.timeoutGeneracion = timeoutGeneracion;
+        this.timeoutEnCurso = timeoutEnCurso;
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(capacidadCola), new CustomizableThreadFactory("pregeneracion-"));
+
+        Gauge.builder("pregeneracion.cola", executor, e -> e.getQueue().size())
+            .description("Trabajos de pre-generación esperando un hilo")
+            .register(meterRegistry);
+        Gauge.builder("pregeneracion.activos", executor, ThreadPoolExecutor::getActiveCount)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Registra (si no existe) el trabajo de pre-generación de la postulación y lo envía al pool.
+     * Es idempotente: un trabajo completado o en curso no se vuelve a lanzar; uno fallido se reintenta.
+     */
+    public void encolar(Long postulacionId) {
+        if (!habilitada || postulacionId == null) {
+            return;
+        }
+        try {
+            TrabajoPreGeneracion trabajo = trabajoRepository.findByPostulacionId(postulacionId)
+                .orElseGet(() -> crearTrabajo(postulacionId));
+
+            if (trabajo.getEstado() == EstadoTrabajo.FALLIDO) {
+                trabajo.setEstado(EstadoTrabajo.PENDIENTE);
+                trabajo.setIntentos(0);
+                trabajo.setFechaActualizacion(LocalDateTime.now());
+                trabajo = trabajoRepository.save(trabajo);
+            }
+            if (trabajo.getEstado() == EstadoTrabajo.PENDIENTE) {
+                enviar(trabajo);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Otra petición creó el trabajo a la vez; ya está registrado
+            logger.debug("Trabajo de pre-generación ya registrado para la postulación {}", postulacionId);
+        } catch (Exception e) {
+            // La pre-generación es una optimización: nunca debe hacer fallar la operación que la dispara
+            logger.warn("No se pudo encolar la pre-generación de la postulación {}: {}", postulacionId, e.getMessage());
+        }
+    }
+
+    /**
+     * Retoma los trabajos pendientes y libera los EN_CURSO abandonados (reinicios, caídas del worker).
+     */
+    @Scheduled(initialDelayString = "${app.pregeneracion.retraso-inicial-ms:15000}",
+               fixedDelayString = "${app.pregeneracion.barrido-ms:60000}")
+    public void recuperarPendientes() {
+        if (!habilitada) {
+            return;
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        int liberados = trabajoRepository.liberarAbandonados(ahora.minus(timeoutEnCurso), ahora);
+        if (liberados > 0) {
+            logger.warn("Se liberaron {} trabajos de pre-generación abandonados", liberados);
+        }
+        for (TrabajoPreGeneracion trabajo : trabajoRepository.findTop100ByEstadoOrderByFechaActualizacionAsc(EstadoTrabajo.PENDIENTE)) {
+            enviar(trabajo);
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        // Los trabajos interrumpidos quedan EN_CURSO y el barrido los retoma tras el reinicio
+        executor.shutdownNow();
+    }
+
+    private TrabajoPreGeneracion crearTrabajo(Long postulacionId) {
+        LocalDateTime ahora = LocalDateTime.now();
+        TrabajoPreGeneracion trabajo = new TrabajoPreGeneracion();
+        trabajo.setPostulacionId(postulacionId);
+        trabajo.setEstado(EstadoTrabajo.PENDIENTE);
+        trabajo.setFechaCreacion(ahora);
+        trabajo.setFechaActualizacion(ahora);
+        return trabajoRepository.save(trabajo);
+    }
+
+    private void enviar(TrabajoPreGeneracion trabajo) {
+        Long trabajoId = trabajo.getId();
+        Long postulacionId = trabajo.getPostulacionId();
+        if (!encolados.add(trabajoId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> ejecutar(trabajoId, postulacionId));
+        } catch (RejectedExecutionException e) {
+            // Pool lleno: el trabajo sigue PENDIENTE y lo recogerá el próximo barrido
+            encolados.remove(trabajoId);
+            logger.info("Pool de pre-generación lleno; la postulación {} queda pendiente", postulacionId);
+        }
+    }
+
+    private void ejecutar(Long trabajoId, Long postulacionId) {
+        try {
+            if (trabajoRepository.reclamar(trabajoId, LocalDateTime.now()) == 0) {
+                return;
+            }
+            logger.info("Pre-generando preguntas para la postulación {}", postulacionId);
+
+            PreguntaRequest request = new PreguntaRequest();
+            request.setIdPostulacion(postulacionId);
+            PreguntaResponse respuesta = preguntaService.generarPreguntas(request, Prioridad.SEGUNDO_PLANO)
+                .block(timeoutGeneracion);
+
+            if (!tienePreguntasValidas(respuesta)) {
+                throw new IllegalStateException("La API no devolvió preguntas válidas");
+            }
+            actualizarEstado(trabajoId, EstadoTrabajo.COMPLETADO, null);
+            logger.info("Preguntas pre-generadas para la postulación {}", postulacionId);
+        } catch (Exception e) {
+            registrarFallo(trabajoId, postulacionId, e);
+        } finally {
+            encolados.remove(trabajoId);
+        }
+    }
+
+    private static boolean tienePreguntasValidas(PreguntaResponse respuesta) {
+        return respuesta != null
+            && respuesta.getQuestions() != null
+            && !respuesta.getQuestions().isEmpty()
+            && respuesta.getQuestions().stream().noneMatch(p -> "error".equals(p.getType()));
+    }
+
+    private void registrarFallo(Long trabajoId, Long postulacionId, Exception error) {
+        try {
+            trabajoRepository.findById(trabajoId).ifPresent(trabajo -> {
+                boolean agotado = trabajo.getIntentos() >= maxIntentos;
+                logger.warn("Falló la pre-generación de la postulación {} (intento {}/{}): {}",
+                    postulacionId, trabajo.getIntentos(), maxIntentos, error.getMessage());
+                // Si quedan intentos vuelve a PENDIENTE: el barrido periódico actúa como backoff
+                trabajo.setEstado(agotado ? EstadoTrabajo.FALLIDO : EstadoTrabajo.PENDIENTE);
+                trabajo.setUltimoError(truncar(error.getMessage()));
+                trabajo.setFechaActualizacion(LocalDateTime.now());
+                trabajoRepository.save(trabajo);
+            });
+        } catch (Exception e) {
+            logger.error("No se pudo registrar el fallo del trabajo de pre-generación {}: {}", trabajoId, e.getMessage());
+        }
+    }
+
+    private void actualizarEstado(Long trabajoId, EstadoTrabajo estado, String error) {
+        trabajoRepository.findById(trabajoId).ifPresent(trabajo -> {
+            trabajo.setEstado(estado);
+            trabajo.setUltimoError(error);
+            trabajo.setFechaActualizacion(LocalDateTime.now());
+            trabajoRepository.save(trabajo);
+        });
+    }
+
+    private static String truncar(String mensaje) {
+        if (mensaje == null) {
+            return null;
+        }
+        return mensaje.length() <= 1000 ? mensaje : mensaje.substring(0, 1000);
+    }
+}
@@ -8,14 +8,24 @@ import com.example.entrevista.repository.PostulacionRepository;
 import com.example.entrevista.model.Convocatoria;
 import com.example.entrevista.model.Pregunta;
 import com.example.entrevista.model.Postulacion;
+import com.example.entrevista.util.PlanificadorLlm.Prioridad;
+import com.example.entrevista.util.ExtractorObjetosJson;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,15 +42,22 @@ public class PreguntaService {
     private static final String ANSI_CYAN = "\u001B[36m";
     private static final String ANSI_RED = "\u001B[31m";
     
-    private final WebClient webClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
     
-    @Value("${openai.api.key}")
-    private String openaiApiKey;
+    // Cliente del LLM con pool, deadlines, reintentos y circuit breaker
+    private final OpenAIService openAIService;
 
-    public PreguntaService(WebClient openAIWebClient) {
-        this.webClient = openAIWebClient;
+    // Hilos virtuales o elastic acotado según app.ejecucion.modo
+    private final Scheduler llmScheduler;
+
+    public PreguntaService(OpenAIService openAIService, Scheduler llmScheduler) {
+        this.openAIService = openAIService;
+        this.llmScheduler = llmScheduler;
     }
 
+    // Generaciones en curso por postulación, compartidas por todas las peticiones concurrentes
+    private final Map<Long, Mono<PreguntaResponse>> generacionesEnCurso = new ConcurrentHashMap<>();
+
     @Autowired
     private PreguntaRepository preguntaRepository;
 
@@ -50,16 +67,77 @@ public class PreguntaService {
     @Autowired
     private PostulacionRepository postulacionRepository;
 
-    public PreguntaResponse generarPreguntas(PreguntaRequest request) {
+    @Autowired
+    private CachePreguntasService cachePreguntas;
+
+    public Mono<PreguntaResponse> generarPreguntas(PreguntaRequest request) {
+        return generarPreguntas(request, Prioridad.INTERACTIVA);
+    }
+
+    /**
+     * Genera las preguntas indicando la prioridad de la llamada al LLM: la pre-generación en
+     * segundo plano usa SEGUNDO_PLANO para no retrasar las evaluaciones de los usuarios.
+     */
+    public Mono<PreguntaResponse> generarPreguntas(PreguntaRequest request, Prioridad prioridad) {
+        // Single-flight por postulación: si ya hay una generación en curso (p. ej. la pre-generación
+        // en segundo plano) se espera su resultado en lugar de lanzar otra y duplicar preguntas
+        Long postulacionId = request.getIdPostulacion();
+        return Mono.defer(() -> generacionesEnCurso.computeIfAbsent(postulacionId, id -> {
+            AtomicReference<Mono<PreguntaResponse>> propia = new AtomicReference<>();
+            propia.set(generarSinDuplicar(request, prioridad)
+                .doFinally(senal -> generacionesEnCurso.remove(id, propia.get()))
+                .cache());
+            return propia.get();
+        }))
+            // Un stream SSE cancelado por su cliente termina vacío: se vuelve a generar
+            .switchIfEmpty(Mono.defer(() -> generarPreguntas(request, prioridad)));
+    }
+
+    private Mono<PreguntaResponse> generarSinDuplicar(PreguntaRequest request, Prioridad prioridad) {
         logger.info(ANSI_CYAN + "Iniciando proceso de generación de preguntas para postulación ID: {}" + ANSI_RESET, request.getIdPostulacion());
-        
+
+        // Las consultas JPA son bloqueantes: se ejecutan fuera del hilo de la petición
+        return Mono.fromCallable(() -> prepararGeneracion(request))
+            .subscribeOn(llmScheduler)
+            .flatMap(preparacion -> {
+                if (preparacion.respuestaExistente != null) {
+                    return Mono.just(preparacion.respuestaExistente);
+                }
+                Optional<String> enCache = cachePreguntas.obtener(preparacion.claveCache);
+                if (enCache.isPresent()) {
+                    logger.info(ANSI_BLUE + "Reutilizando un conjunto de preguntas en caché para el puesto '{}'" + ANSI_RESET, request.getPuesto());
+                    preparacion.desdeCache = true;
+                    return Mono.fromCallable(() -> guardarPreguntasGeneradas(preparacion, enCache.get()))
+                        .subscribeOn(llmScheduler);
+                }
+                logger.info("Enviando petición a OpenAI para generar preguntas...");
+                return enviarAOpenAI(preparacion.prompt, prioridad)
+                    .publishOn(llmScheduler)
+                    .map(jsonResponse -> guardarPreguntasGeneradas(preparacion, jsonResponse));
+            });
+    }
+
+    // Datos necesarios para completar la generación una vez llega la respuesta de OpenAI
+    private static class PreparacionGeneracion {
+        private Postulacion postulacion;
+        private Convocatoria convocatoria;
+        private String prompt;
+        private String claveCache;
+        private boolean desdeCache;
+        private PreguntaResponse respuestaExistente;
+    }
+
+    private PreparacionGeneracion prepararGeneracion(PreguntaRequest request) {
+        PreparacionGeneracion preparacion = new PreparacionGeneracion();
+
         // Obtener la postulación
         logger.debug("Buscando postulación con ID: {}", request.getIdPostulacion());
-        Postulacion postulacion = postulacionRepository.findById(request.getIdPostulacion())
+        Postulacion postulacion = postulacionRepository.findConConvocatoriaById(request.getIdPostulacion())
             .orElseThrow(() -> {
                 logger.error(ANSI_RED + "Postulación no encontrada con ID: {}" + ANSI_RESET, request.getIdPostulacion());
                 return new RuntimeException("Postulación no encontrada con ID: " + request.getIdPostulacion());
             });
+        preparacion.postulacion = postulacion;
         
         // Verificar si las preguntas ya fueron generadas para esta postulación
         if (postulacion.isPreguntasGeneradas()) {
@@ -86,7 +164,8 @@ public class PreguntaService {
                 response.setSuccess(true);
                 response.setQuestions(preguntasDTO);
                 response.setMensaje("Las preguntas ya fueron generadas anteriormente y se están recuperando de la base de datos."); // Añadir mensaje
-                return response;
+                preparacion.respuestaExistente = response;
+                return preparacion;
             } else {
                 // Este es un caso extraño donde la postulación está marcada como con preguntas generadas pero no hay preguntas
                 logger.warn("La postulación está marcada como con preguntas generadas pero no se encontraron preguntas. Se generarán nuevas preguntas.");
@@ -103,6 +182,7 @@ public class PreguntaService {
             throw new RuntimeException("La postulación no tiene una convocatoria asociada");
         }
         logger.debug("Convocatoria encontrada: {} ({})", convocatoria.getTitulo(), convocatoria.getId());
+        preparacion.convocatoria = convocatoria;
         
         // Obtener la dificultad directamente de la convocatoria
         int dificultad = convocatoria.getDificultad();
@@ -112,13 +192,210 @@ public class PreguntaService {
         request.setPuesto(convocatoria.getPuesto());
         request.setIdConvocatoria(convocatoria.getId());
         
-        String nivelDificultad = obtenerDescripcionDificultad(dificultad);
         logger.info("Generando preguntas para puesto '{}' con nivel de dificultad {}/10 ({})", 
-                request.getPuesto(), dificultad, nivelDificultad);
+                request.getPuesto(), dificultad, obtenerDescripcionDificultad(dificultad));
         
         // Construir el prompt para OpenAI
         logger.debug("Construyendo prompt para OpenAI");
-        String prompt = """
+        preparacion.prompt = construirPrompt(request.getPuesto(), dificultad);
+        preparacion.claveCache = cachePreguntas.calcularClave(openAIService.getModelo(), preparacion.prompt);
+        return preparacion;
+    }
+
+    private PreguntaResponse guardarPreguntasGeneradas(PreparacionGeneracion preparacion, String jsonResponse) {
+        Postulacion postulacion = preparacion.postulacion;
+        Convocatoria convocatoria = preparacion.convocatoria;
+
+        List<PreguntaResponse.PreguntaDTO> preguntas;
+        try {
+            logger.debug("Parseando respuesta JSON de OpenAI");
+            com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
+            PreguntaResponse.PreguntaDTO[] arr = mapper.readValue(jsonResponse, PreguntaResponse.PreguntaDTO[].class);
+            preguntas = Arrays.asList(arr);
+            
+            // Añadir typeReadable a cada pregunta
+            preguntas.forEach(pregunta -> {
+                pregunta.setTypeReadable(traducirTipoPregunta(pregunta.getType()));
+            });
+            
+            logger.info("Se han generado {} preguntas correctamente", preguntas.size());
+        } catch (Exception e) {
+            // Sin guardar, cachear ni marcar nada: la generación (o el trabajo de pre-generación) puede reintentarse
+            logger.error("Error al parsear la respuesta JSON: {}", e.getMessage(), e);
+            throw new RuntimeException("No se pudo parsear la respuesta JSON de la API: " + e.getMessage(), e);
+        }
+        if (preguntas.isEmpty()) {
+            throw new RuntimeException("La API no devolvió preguntas válidas");
+        }
+
+        PreguntaResponse response = new PreguntaResponse();
+        response.setSuccess(true);
+        response.setQuestions(preguntas);
+
+        // Guarda todas las preguntas generadas con inserciones JDBC por lotes
+        logger.info("Guardando {} preguntas en la base de datos", preguntas.size());
+        List<Pregunta> nuevas = new ArrayList<>(preguntas.size());
+        int numero = 1;
+        for (PreguntaResponse.PreguntaDTO dto : preguntas) {
+            nuevas.add(crearPregunta(dto, numero++, convocatoria, postulacion));
+        }
+        preguntaRepository.insertarEnLote(nuevas);
+        
+        marcarPreguntasGeneradas(postulacion);
+
+        // Solo se cachean conjuntos válidos que vienen del LLM
+        if (!preparacion.desdeCache) {
+            cachePreguntas.registrar(preparacion.claveCache, jsonResponse);
+        }
+
+        logger.info(ANSI_GREEN + "✓ Proceso de generación de preguntas completado exitosamente" + ANSI_RESET);
+        response.setMensaje("Las preguntas se han generado por primera vez para esta postulación."); // Añadir mensaje
+        return response;
+    }
+
+    private Pregunta crearPregunta(PreguntaResponse.PreguntaDTO dto, int numero, Convocatoria convocatoria, Postulacion postulacion) {
+        Pregunta pregunta = new Pregunta();
+        pregunta.setNumero(numero);
+        pregunta.setTextoPregunta(dto.getQuestion());
+        pregunta.setTipo(dto.getType()); // Guardar el tipo de pregunta original
+        pregunta.setTipoLegible(traducirTipoPregunta(dto.getType())); // Guardar la versión legible en español
+        pregunta.setScore(dto.getScore());
+        pregunta.setConvocatoria(convocatoria);
+        pregunta.setPostulacion(postulacion);
+        
+        logger.debug("Guardando pregunta {}: {} (tipo: {}, tipo legible: {}, valor: {}%, dificultad: {})", 
+                numero, dto.getQuestion().substring(0, Math.min(50, dto.getQuestion().length())) + "...", 
+                dto.getType(), pregunta.getTipoLegible(), dto.getScore(), convocatoria.getDificultad());
+        
+        return pregunta;
+    }
+
+    private void marcarPreguntasGeneradas(Postulacion postulacion) {
+        // UPDATE de la columna en lugar de save: la entidad se cargó antes de esperar al LLM
+        postulacionRepository.marcarPreguntasGeneradas(postulacion.getId());
+        postulacion.setPreguntasGeneradas(true);
+        logger.info(ANSI_GREEN + "✓ Postulación {} marcada como con preguntas generadas" + ANSI_RESET, postulacion.getId());
+    }
+
+    /**
+     * Variante en streaming de generarPreguntas: cada pregunta se guarda y se emite en cuanto
+     * el LLM termina de escribirla. Al completar el stream se marca la postulación; si el stream
+     * falla o el cliente cancela, se eliminan las preguntas parciales para poder reintentar.
+     */
+    public Flux<PreguntaResponse.PreguntaDTO> generarPreguntasStream(PreguntaRequest request) {
+        logger.info(ANSI_CYAN + "Iniciando generación de preguntas en streaming para postulación ID: {}" + ANSI_RESET, request.getIdPostulacion());
+
+        Long postulacionId = request.getIdPostulacion();
+        return Flux.defer(() -> {
+            // El stream se registra en el mismo single-flight que generarPreguntas: una pre-generación o
+            // una petición normal lanzada mientras tanto espera su resultado en lugar de duplicar preguntas
+            Sinks.One<PreguntaResponse> resultado = Sinks.one();
+            Mono<PreguntaResponse> propia = resultado.asMono();
+            Mono<PreguntaResponse> enCurso = generacionesEnCurso.putIfAbsent(postulacionId, propia);
+            if (enCurso != null) {
+                logger.info("Ya hay una generación en curso para la postulación {}; se emitirá su resultado", postulacionId);
+                return enCurso.flatMapIterable(PreguntaResponse::getQuestions)
+                    .switchIfEmpty(Flux.defer(() -> generarPreguntasStream(request)));
+            }
+
+            List<PreguntaResponse.PreguntaDTO> emitidas = new CopyOnWriteArrayList<>();
+            return generarEnStreaming(request)
+                .doOnNext(emitidas::add)
+                .doOnComplete(() -> {
+                    PreguntaResponse respuesta = new PreguntaResponse();
+                    respuesta.setSuccess(true);
+                    respuesta.setQuestions(List.copyOf(emitidas));
+                    generacionesEnCurso.remove(postulacionId, propia);
+                    resultado.tryEmitValue(respuesta);
+                })
+                .doOnError(e -> {
+                    generacionesEnCurso.remove(postulacionId, propia);
+                    resultado.tryEmitError(e);
+                })
+                .doOnCancel(() -> {
+                    // Se quita del mapa antes de avisar para que quien esperaba lance su propia generación
+                    generacionesEnCurso.remove(postulacionId, propia);
+                    resultado.tryEmitEmpty();
+                });
+        });
+    }
+
+    private Flux<PreguntaResponse.PreguntaDTO> generarEnStreaming(PreguntaRequest request) {
+        return Mono.fromCallable(() -> prepararGeneracion(request))
+            .subscribeOn(llmScheduler)
+            .flatMapMany(preparacion -> {
+                if (preparacion.respuestaExistente != null) {
+                    return Flux.fromIterable(preparacion.respuestaExistente.getQuestions());
+                }
+                Optional<String> enCache = cachePreguntas.obtener(preparacion.claveCache);
+                if (enCache.isPresent()) {
+                    logger.info(ANSI_BLUE + "Reutilizando un conjunto de preguntas en caché para el puesto '{}'" + ANSI_RESET, request.getPuesto());
+                    preparacion.desdeCache = true;
+                    return guardarPreguntasEnStreaming(preparacion,
+                        Flux.fromIterable(new ExtractorObjetosJson().agregar(enCache.get())));
+                }
+                logger.info("Enviando petición en streaming a OpenAI para generar preguntas...");
+                return guardarPreguntasEnStreaming(preparacion, enviarAOpenAIEnStreaming(preparacion.prompt));
+            });
+    }
+
+    private Flux<PreguntaResponse.PreguntaDTO> guardarPreguntasEnStreaming(PreparacionGeneracion preparacion, Flux<String> objetosJson) {
+        AtomicInteger numero = new AtomicInteger(1);
+        List<Pregunta> guardadas = new CopyOnWriteArrayList<>();
+        List<String> objetosValidos = new CopyOnWriteArrayList<>();
+
+        return objetosJson
+            .publishOn(llmScheduler)
+            .concatMap(json -> Mono.justOrEmpty(parsearPregunta(json))
+                .map(dto -> {
+                    // En streaming cada pregunta se guarda en cuanto llega para poder emitirla ya persistida
+                    guardadas.add(preguntaRepository.save(
+                        crearPregunta(dto, numero.getAndIncrement(), preparacion.convocatoria, preparacion.postulacion)));
+                    objetosValidos.add(json);
+                    return dto;
+                }))
+            .switchIfEmpty(Flux.error(new RuntimeException("La API no devolvió preguntas válidas")))
+            .doOnComplete(() -> {
+                marcarPreguntasGeneradas(preparacion.postulacion);
+                if (!preparacion.desdeCache) {
+                    cachePreguntas.registrar(preparacion.claveCache, "[" + String.join(",", objetosValidos) + "]");
+                }
+                logger.info(ANSI_GREEN + "✓ {} preguntas generadas en streaming" + ANSI_RESET, guardadas.size());
+            })
+            .doFinally(senal -> {
+                if (senal != SignalType.ON_COMPLETE && !guardadas.isEmpty()) {
+                    logger.warn("Generación en streaming interrumpida ({}); eliminando {} preguntas parciales", senal, guardadas.size());
+                    // La cancelación puede llegar desde un hilo del servidor (event loop): el borrado JPA va al scheduler
+                    llmScheduler.schedule(() -> {
+                        try {
+                            preguntaRepository.deleteAll(guardadas);
+                        } catch (Exception e) {
+                            logger.error("No se pudieron eliminar las preguntas parciales de la postulación {}: {}",
+                                preparacion.postulacion.getId(), e.getMessage(), e);
+                        }
+                    });
+                }
+            });
+    }
+
+    private Optional<PreguntaResponse.PreguntaDTO> parsearPregunta(String json) {
+        try {
+            PreguntaResponse.PreguntaDTO dto = objectMapper.readValue(json, PreguntaResponse.PreguntaDTO.class);
+            if (dto.getQuestion() == null || dto.getType() == null) {
+                logger.warn("Pregunta incompleta descartada: {}", json);
+                return Optional.empty();
+            }
+            dto.setTypeReadable(traducirTipoPregunta(dto.getType()));
+            return Optional.of(dto);
+        } catch (Exception e) {
+            logger.warn("No se pudo parsear una pregunta del stream: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private String construirPrompt(String puesto, int dificultad) {
+        String nivelDificultad = obtenerDescripcionDificultad(dificultad);
+        return """
             Eres un generador automático de preguntas de entrevista EXPERTO en recursos humanos y evaluación técnica.
             Tu tarea es generar 10 preguntas en formato JSON que evalúen a un candidato para el puesto de '%s'.
 
@@ -172,65 +449,8 @@ public class PreguntaService {
             IMPORTANTE: La suma total de todos los scores debe ser EXACTAMENTE 100.
             RECUERDA: La respuesta completa debe estar en ESPAÑOL. No mezcles idiomas.
             VERIFICA que el JSON sea válido antes de enviarlo.
-            """.formatted(request.getPuesto(), dificultad, nivelDificultad,
+            """.formatted(puesto, dificultad, nivelDificultad,
                          obtenerInstruccionesDificultad(dificultad));
-
-        logger.info("Enviando petición a OpenAI para generar preguntas...");
-        String jsonResponse = enviarAOpenAI(prompt);
-
-        List<PreguntaResponse.PreguntaDTO> preguntas;
-        try {
-            logger.debug("Parseando respuesta JSON de OpenAI");
-            com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            PreguntaResponse.PreguntaDTO[] arr = mapper.readValue(jsonResponse, PreguntaResponse.PreguntaDTO[].class);
-            preguntas = Arrays.asList(arr);
-            
-            // Añadir typeReadable a cada pregunta
-            preguntas.forEach(pregunta -> {
-                pregunta.setTypeReadable(traducirTipoPregunta(pregunta.getType()));
-            });
-            
-            logger.info("Se han generado {} preguntas correctamente", preguntas.size());
-        } catch (Exception e) {
-            logger.error("Error al parsear la respuesta JSON: {}", e.getMessage(), e);
-            PreguntaResponse.PreguntaDTO errorDto = new PreguntaResponse.PreguntaDTO();
-            errorDto.setType("error");
-            errorDto.setQuestion("No se pudo parsear la respuesta JSON de la API: " + e.getMessage());
-            preguntas = List.of(errorDto);
-        }
-
-        PreguntaResponse response = new PreguntaResponse();
-        response.setSuccess(true);
-        response.setQuestions(preguntas);
-
-        // Guarda cada pregunta generada
-        logger.info("Guardando {} preguntas en la base de datos", preguntas.size());
-        int numero = 1;
-        for (PreguntaResponse.PreguntaDTO dto : preguntas) {
-            Pregunta pregunta = new Pregunta();
-            pregunta.setNumero(numero++);
-            pregunta.setTextoPregunta(dto.getQuestion());
-            pregunta.setTipo(dto.getType()); // Guardar el tipo de pregunta original
-            pregunta.setTipoLegible(traducirTipoPregunta(dto.getType())); // Guardar la versión legible en español
-            pregunta.setScore(dto.getScore());
-            pregunta.setConvocatoria(convocatoria);
-            pregunta.setPostulacion(postulacion);
-            
-            logger.debug("Guardando pregunta {}: {} (tipo: {}, tipo legible: {}, valor: {}%, dificultad: {})", 
-                    numero-1, dto.getQuestion().substring(0, Math.min(50, dto.getQuestion().length())) + "...", 
-                    dto.getType(), pregunta.getTipoLegible(), dto.getScore(), convocatoria.getDificultad());
-            
-            preguntaRepository.save(pregunta);
-        }
-        
-        // Marcar la postulación como con preguntas generadas y guardarla
-        postulacion.setPreguntasGeneradas(true);
-        postulacionRepository.save(postulacion);
-        logger.info(ANSI_GREEN + "✓ Postulación {} marcada como con preguntas generadas" + ANSI_RESET, postulacion.getId());
-
-        logger.info(ANSI_GREEN + "✓ Proceso de generación de preguntas completado exitosamente" + ANSI_RESET);
-        response.setMensaje("Las preguntas se han generado por primera vez para esta postulación."); // Añadir mensaje
-        return response;
     }
 
     // Métodos para obtener preguntas
@@ -246,54 +466,54 @@ public class PreguntaService {
         return preguntaRepository.findByConvocatoriaIdAndPostulacionId(convocatoriaId, postulacionId);
     }
 
-    private String enviarAOpenAI(String prompt) {
-        Map<String, Object> body = Map.of(
-            "model", "gpt-3.5-turbo",
-            "messages", List.of(
-                Map.of("role", "user", "content", prompt)
-            ),
-            "temperature", 0.7
-        );
-
-        try {
-            logger.debug("Enviando solicitud a la API de OpenAI");
-            Map<String, Object> response = webClient.post()
-                .uri("/chat/completions")
-                .header("Authorization", "Bearer " + openaiApiKey)
-                .bodyValue(body)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .block();
-
-            if (response == null || response.isEmpty()) {
+    private Mono<String> enviarAOpenAI(String prompt, Prioridad prioridad) {
+        logger.debug("Enviando solicitud a la API de OpenAI");
+        return openAIService.completar(prompt, prioridad)
+            .map(this::extraerContenido)
+            .switchIfEmpty(Mono.fromSupplier(() -> {
                 logger.error("OpenAI API devolvió una respuesta vacía");
                 return "[]";
-            }
+            }))
+            .onErrorResume(e -> {
+                logger.error("Error al llamar a la API de OpenAI: {}", e.getMessage(), e);
+                return Mono.just("[]");
+            });
+    }
+
+    private Flux<String> enviarAOpenAIEnStreaming(String prompt) {
+        return Flux.defer(() -> {
+            ExtractorObjetosJson extractor = new ExtractorObjetosJson();
+            return openAIService.completarEnStreaming(prompt)
+                .concatMapIterable(extractor::agregar);
+        });
+    }
+
+    private String extraerContenido(Map<String, Object> response) {
+        if (response.isEmpty()) {
+            logger.error("OpenAI API devolvió una respuesta vacía");
+            return "[]";
+        }
 
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> choices = (List<Map<String, Object>>) response.get("choices");
+        if (choices != null && !choices.isEmpty()) {
+            logger.debug("Respuesta de OpenAI recibida correctamente");
             @SuppressWarnings("unchecked")
-            List<Map<String, Object>> choices = (List<Map<String, Object>>) response.get("choices");
-            if (choices != null && !choices.isEmpty()) {
-                logger.debug("Respuesta de OpenAI recibida correctamente");
-                @SuppressWarnings("unchecked")
-                Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
-                String content = (String) message.get("content");
-                
-                // Ensure the content is properly formatted as JSON array
-                if (content != null && !content.trim().startsWith("[")) {
-                    // Extract JSON array if wrapped in backticks or other formatting
-                    if (content.contains("[") && content.contains("]")) {
-                        logger.debug("Formateando contenido JSON de la respuesta");
-                        content = content.substring(content.indexOf("["), content.lastIndexOf("]") + 1);
-                    }
+            Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
+            String content = (String) message.get("content");
+            
+            // Ensure the content is properly formatted as JSON array
+            if (content != null && !content.trim().startsWith("[")) {
+                // Extract JSON array if wrapped in backticks or other formatting
+                if (content.contains("[") && content.contains("]")) {
+                    logger.debug("Formateando contenido JSON de la respuesta");
+                    content = content.substring(content.indexOf("["), content.lastIndexOf("]") + 1);
                 }
-                
-                return content;
-            } else {
-                logger.error("No se encontraron opciones en la respuesta de OpenAI");
-                return "[]";
             }
-        } catch (Exception e) {
-            logger.error("Error al llamar a la API de OpenAI: {}", e.getMessage(), e);
+            
+            return content;
+        } else {
+            logger.error("No se encontraron opciones en la respuesta de OpenAI");
             return "[]";
         }
     }
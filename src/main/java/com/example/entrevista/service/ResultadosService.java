@@ -35,11 +35,19 @@ public class ResultadosService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CacheResultadosService cacheResultados;
+
     /**
      * Obtiene un resumen completo de los resultados de una postulación
-     * Versión optimizada usando DatosEvaluacionService
+     * Versión optimizada usando DatosEvaluacionService; se sirve desde CacheResultadosService
      */
     public Map<String, Object> obtenerResumenResultados(Long postulacionId) {
+        return cacheResultados.obtener(postulacionId, CacheResultadosService.Vista.RESUMEN,
+            () -> calcularResumenResultados(postulacionId));
+    }
+
+    private Map<String, Object> calcularResumenResultados(Long postulacionId) {
         try {
             logger.info("Iniciando obtención de resumen de resultados para postulación {}", postulacionId);
             
@@ -85,9 +93,14 @@ public class ResultadosService {
 
     /**
      * Obtiene el detalle completo de los resultados de una postulación
-     * Versión optimizada usando DatosEvaluacionService
+     * Versión optimizada usando DatosEvaluacionService; se sirve desde CacheResultadosService
      */
     public Map<String, Object> obtenerDetalleResultados(Long postulacionId) {
+        return cacheResultados.obtener(postulacionId, CacheResultadosService.Vista.DETALLE,
+            () -> calcularDetalleResultados(postulacionId));
+    }
+
+    private Map<String, Object> calcularDetalleResultados(Long postulacionId) {
         try {
             logger.info("Iniciando obtención de detalle de resultados para postulación {}", postulacionId);
             
@@ -337,18 +350,29 @@ public class ResultadosService {
     }
 
     private Map<String, Object> construirResumenCompleto(Postulacion postulacion, List<Evaluacion> evaluaciones) {
-        // Calcular promedios por criterio de manera segura
-        PromediosCriterios promedios = calcularPromediosCriterios(evaluaciones);
-        
-        // Calcular puntaje final
-        double puntajeFinal = calcularPuntajeFinal(evaluaciones);
+        PromediosCriterios promedios;
+        double puntajeFinal;
+        Date fechaEvaluacion;
+        if (acumuladosAlDia(postulacion, evaluaciones)) {
+            // Promedios, puntaje y fecha desde las sumas acumuladas de la postulación, sin recorrer las evaluaciones
+            int total = postulacion.getTotalEvaluaciones();
+            promedios = new PromediosCriterios(
+                (double) postulacion.getSumaClaridadEstructura() / total,
+                (double) postulacion.getSumaDominioTecnico() / total,
+                (double) postulacion.getSumaPertinencia() / total,
+                (double) postulacion.getSumaComunicacionSeguridad() / total);
+            puntajeFinal = postulacion.getSumaPorcentajes();
+            fechaEvaluacion = postulacion.getFechaUltimaEvaluacion() != null
+                ? postulacion.getFechaUltimaEvaluacion() : obtenerFechaMasReciente(evaluaciones);
+        } else {
+            promedios = calcularPromediosCriterios(evaluaciones);
+            puntajeFinal = calcularPuntajeFinal(evaluaciones);
+            fechaEvaluacion = obtenerFechaMasReciente(evaluaciones);
+        }
         
         // Extraer fortalezas y oportunidades
         FortalezasOportunidades fortalezasOportunidades = extraerFortalezasYOportunidades(evaluaciones);
         
-        // Obtener fecha más reciente
-        Date fechaEvaluacion = obtenerFechaMasReciente(evaluaciones);
-        
         Map<String, Object> resultados = new HashMap<>();
         resultados.put("success", true);
         resultados.put("usuarioId", postulacion.getUsuario().getId());
@@ -463,24 +487,30 @@ public class ResultadosService {
     }
 
     // Métodos de cálculo mejorados
-    private PromediosCriterios calcularPromediosCriterios(List<Evaluacion> evaluaciones) {
-        double promedioClaridad = evaluaciones.stream()
-            .mapToDouble(e -> e.getClaridadEstructura() != null ? e.getClaridadEstructura() : 0)
-            .average().orElse(0);
-            
-        double promedioDominio = evaluaciones.stream()
-            .mapToDouble(e -> e.getDominioTecnico() != null ? e.getDominioTecnico() : 0)
-            .average().orElse(0);
-            
-        double promedioPertinencia = evaluaciones.stream()
-            .mapToDouble(e -> e.getPertinencia() != null ? e.getPertinencia() : 0)
-            .average().orElse(0);
-            
-        double promedioComunicacion = evaluaciones.stream()
-            .mapToDouble(e -> e.getComunicacionSeguridad() != null ? e.getComunicacionSeguridad() : 0)
-            .average().orElse(0);
 
-        return new PromediosCriterios(promedioClaridad, promedioDominio, promedioPertinencia, promedioComunicacion);
+    // Los acumulados solo se usan si cubren todas las evaluaciones cargadas (p. ej. no las guardadas
+    // por otra vía que no sea EvaluacionRepository.insertarEnLote)
+    private static boolean acumuladosAlDia(Postulacion postulacion, List<Evaluacion> evaluaciones) {
+        return postulacion.getTotalEvaluaciones() > 0 && postulacion.getTotalEvaluaciones() == evaluaciones.size();
+    }
+
+    // Respaldo cuando no hay acumulados: una sola pasada por las evaluaciones para los cuatro criterios
+    private PromediosCriterios calcularPromediosCriterios(List<Evaluacion> evaluaciones) {
+        if (evaluaciones.isEmpty()) {
+            return new PromediosCriterios(0, 0, 0, 0);
+        }
+        long claridad = 0;
+        long dominio = 0;
+        long pertinencia = 0;
+        long comunicacion = 0;
+        for (Evaluacion e : evaluaciones) {
+            claridad += e.getClaridadEstructura() != null ? e.getClaridadEstructura() : 0;
+            dominio += e.getDominioTecnico() != null ? e.getDominioTecnico() : 0;
+            pertinencia += e.getPertinencia() != null ? e.getPertinencia() : 0;
+            comunicacion += e.getComunicacionSeguridad() != null ? e.getComunicacionSeguridad() : 0;
+        }
+        double total = evaluaciones.size();
+        return new PromediosCriterios(claridad / total, dominio / total, pertinencia / total, comunicacion / total);
     }
 
     private double calcularPuntajeFinal(List<Evaluacion> evaluaciones) {
@@ -14,8 +14,14 @@ public class UsuarioService {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private DirectorioCuentasService directorioCuentas;
+
     public Usuario crearUsuario(Usuario usuario) {
-        return usuarioRepository.save(usuario);
+        Usuario guardado = usuarioRepository.save(usuario);
+        // El login lee las cuentas del directorio en caché
+        directorioCuentas.invalidar(guardado.getEmail());
+        return guardado;
     }
 
     public Optional<Usuario> buscarPorId(Long id) {
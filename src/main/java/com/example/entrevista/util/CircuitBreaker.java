@@ -0,0 +1,117 @@
+package com.example.entrevista.util;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * Circuit breaker mínimo para llamadas reactivas a un servicio externo.
+ *
+ * CERRADO: las llamadas pasan; tras N fallos consecutivos se abre.
+ * ABIERTO: las llamadas fallan de inmediato con {@link CircuitoAbiertoException} durante el tiempo configurado.
+ * SEMI_ABIERTO: se deja pasar una sola llamada de prueba; si funciona se cierra, si falla se vuelve a abrir.
+ */
+public class CircuitBreaker {
+
+    public enum Estado { CERRADO, ABIERTO, SEMI_ABIERTO }
+
+    private final String nombre;
+    private final int umbralFallos;
+    private final long tiempoAbiertoNanos;
+    private final Predicate<Throwable> cuentaComoFallo;
+
+    private final AtomicReference<Estado> estado = new AtomicReference<>(Estado.CERRADO);
+    private final AtomicInteger fallosConsecutivos = new AtomicInteger();
+    private final AtomicBoolean pruebaEnCurso = new AtomicBoolean();
+    private volatile long abiertoHasta;
+
+    public CircuitBreaker(String nombre, int umbralFallos, Duration tiempoAbierto, Predicate<Throwable> cuentaComoFallo) {
+        if (umbralFallos < 1) {
+            throw new IllegalArgumentException("El umbral de fallos debe ser mayor que cero");
+        }
+        this.nombre = nombre;
+        this.umbralFallos = umbralFallos;
+        this.tiempoAbiertoNanos = tiempoAbierto.toNanos();
+        this.cuentaComoFallo = cuentaComoFallo;
+    }
+
+    public <T> Mono<T> proteger(Mono<T> llamada) {
+        return Mono.defer(() -> {
+            if (!permitir()) {
+                return Mono.error(new CircuitoAbiertoException(nombre));
+            }
+            return llamada
+                .doOnSuccess(valor -> registrarExito())
+                .doOnError(this::registrarError)
+                .doOnCancel(() -> pruebaEnCurso.set(false));
+        });
+    }
+
+    public <T> Flux<T> proteger(Flux<T> llamada) {
+        return Flux.defer(() -> {
+            if (!permitir()) {
+                return Flux.error(new CircuitoAbiertoException(nombre));
+            }
+            return llamada
+                .doOnComplete(this::registrarExito)
+                .doOnError(this::registrarError)
+                .doOnCancel(() -> pruebaEnCurso.set(false));
+        });
+    }
+
+    public Estado getEstado() {
+        // Un circuito abierto cuyo tiempo ya venció se reporta como semi-abierto
+        if (estado.get() == Estado.ABIERTO && System.nanoTime() - abiertoHasta >= 0) {
+            return Estado.SEMI_ABIERTO;
+        }
+        return estado.get();
+    }
+
+    private boolean permitir() {
+        Estado actual = estado.get();
+        if (actual == Estado.CERRADO) {
+            return true;
+        }
+        if (actual == Estado.ABIERTO) {
+            if (System.nanoTime() - abiertoHasta < 0) {
+                return false;
+            }
+            estado.compareAndSet(Estado.ABIERTO, Estado.SEMI_ABIERTO);
+        }
+        // Semi-abierto: solo una llamada de prueba a la vez
+        return pruebaEnCurso.compareAndSet(false, true);
+    }
+
+    private void registrarExito() {
+        fallosConsecutivos.set(0);
+        estado.set(Estado.CERRADO);
+        pruebaEnCurso.set(false);
+    }
+
+    private void registrarError(Throwable error) {
+        if (!cuentaComoFallo.test(error)) {
+            // Errores del cliente (4xx) no indican degradación del servicio
+            if (estado.get() == Estado.SEMI_ABIERTO) {
+                registrarExito();
+            }
+            return;
+        }
+        if (estado.get() == Estado.SEMI_ABIERTO || fallosConsecutivos.incrementAndGet() >= umbralFallos) {
+            abiertoHasta = System.nanoTime() + tiempoAbiertoNanos;
+            fallosConsecutivos.set(0);
+            estado.set(Estado.ABIERTO);
+        }
+        pruebaEnCurso.set(false);
+    }
+
+    public static class CircuitoAbiertoException extends RuntimeException {
+        public CircuitoAbiertoException(String nombre) {
+            super("El servicio " + nombre + " no está disponible temporalmente (circuito abierto)");
+        }
+    }
+}
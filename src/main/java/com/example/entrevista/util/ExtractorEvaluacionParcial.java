@@ -0,0 +1,122 @@
+package com.example.entrevista.util;
+
+import com.example.entrevista.DTO.EvaluacionEventoDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Detecta, sobre el JSON de evaluación que llega por fragmentos, los puntajes de cada criterio
+ * y los elementos de fortalezas / oportunidades de mejora en cuanto quedan completos.
+ * No es thread-safe: se usa una instancia por stream.
+ */
+public class ExtractorEvaluacionParcial {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Map<String, Pattern> CRITERIOS = new LinkedHashMap<>();
+    static {
+        for (String criterio : List.of("claridad_estructura", "dominio_tecnico", "pertinencia", "comunicacion_seguridad")) {
+            // El número solo está completo cuando le sigue un separador
+            CRITERIOS.put(criterio, Pattern.compile("\"" + criterio + "\"\\s*:\\s*(\\d+(?:\\.\\d+)?)\\s*[,}\\s]"));
+        }
+    }
+
+    private static final Map<String, String> LISTAS = Map.of(
+        "fortalezas", "fortaleza",
+        "oportunidades_mejora", "oportunidad_mejora"
+    );
+
+    private final StringBuilder contenido = new StringBuilder();
+    private final Set<String> criteriosEmitidos = new HashSet<>();
+    private final Map<String, Integer> elementosEmitidos = new HashMap<>();
+
+    public List<EvaluacionEventoDTO> agregar(String fragmento) {
+        List<EvaluacionEventoDTO> eventos = new ArrayList<>();
+        if (fragmento == null || fragmento.isEmpty()) {
+            return eventos;
+        }
+        contenido.append(fragmento);
+
+        for (Map.Entry<String, Pattern> criterio : CRITERIOS.entrySet()) {
+            if (criteriosEmitidos.contains(criterio.getKey())) {
+                continue;
+            }
+            Matcher matcher = criterio.getValue().matcher(contenido);
+            if (matcher.find()) {
+                criteriosEmitidos.add(criterio.getKey());
+                int valor = (int) Math.round(Double.parseDouble(matcher.group(1)));
+                eventos.add(new EvaluacionEventoDTO("criterio", Map.of("criterio", criterio.getKey(), "valor", valor)));
+            }
+        }
+
+        for (Map.Entry<String, String> lista : LISTAS.entrySet()) {
+            List<String> elementos = elementosCompletos(lista.getKey());
+            int emitidos = elementosEmitidos.getOrDefault(lista.getKey(), 0);
+            for (int i = emitidos; i < elementos.size(); i++) {
+                eventos.add(new EvaluacionEventoDTO(lista.getValue(), Map.of("indice", i, "texto", elementos.get(i))));
+            }
+            elementosEmitidos.put(lista.getKey(), elementos.size());
+        }
+        return eventos;
+    }
+
+    public String getContenido() {
+        return contenido.toString();
+    }
+
+    // Devuelve las cadenas ya cerradas del arreglo indicado
+    private List<String> elementosCompletos(String campo) {
+        List<String> elementos = new ArrayList<>();
+        Matcher inicio = Pattern.compile("\"" + campo + "\"\\s*:\\s*\\[").matcher(contenido);
+        if (!inicio.find()) {
+            return elementos;
+        }
+
+        int i = inicio.end();
+        while (i < contenido.length()) {
+            char c = contenido.charAt(i);
+            if (c == ']') {
+                break;
+            }
+            if (c != '"') {
+                i++;
+                continue;
+            }
+            int fin = cierreDeCadena(i);
+            if (fin < 0) {
+                break;
+            }
+            try {
+                elementos.add(MAPPER.readValue(contenido.substring(i, fin + 1), String.class));
+            } catch (Exception e) {
+                break;
+            }
+            i = fin + 1;
+        }
+        return elementos;
+    }
+
+    private int cierreDeCadena(int apertura) {
+        boolean escape = false;
+        for (int i = apertura + 1; i < contenido.length(); i++) {
+            char c = contenido.charAt(i);
+            if (escape) {
+                escape = false;
+            } else if (c == '\\') {
+                escape = true;
+            } else if (c == '"') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.entrevista.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extrae de forma incremental los objetos de primer nivel de un arreglo JSON que llega por fragmentos
+ * (por ejemplo, los deltas de una respuesta en streaming del LLM).
+ *
+ * Cada llamada a {@link #agregar(String)} devuelve los objetos que quedaron completos con ese fragmento.
+ * Se ignora cualquier texto fuera del arreglo (como bloques de código markdown).
+ * No es thread-safe: se usa una instancia por stream.
+ */
+public class ExtractorObjetosJson {
+
+    private final StringBuilder actual = new StringBuilder();
+    private int profundidad = 0;
+    private boolean enCadena = false;
+    private boolean escape = false;
+    private boolean dentroDelArreglo = false;
+
+    public List<String> agregar(String fragmento) {
+        List<String> completos = new ArrayList<>();
+        if (fragmento == null) {
+            return completos;
+        }
+
+        for (int i = 0; i < fragmento.length(); i++) {
+            char c = fragmento.charAt(i);
+
+            if (!dentroDelArreglo) {
+                if (c == '[') {
+                    dentroDelArreglo = true;
+                }
+                continue;
+            }
+
+            if (profundidad > 0) {
+                actual.append(c);
+            }
+
+            if (enCadena) {
+                if (escape) {
+                    escape = false;
+                } else if (c == '\\') {
+                    escape = true;
+                } else if (c == '"') {
+                    enCadena = false;
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '"' -> enCadena = profundidad > 0;
+                case '{', '[' -> {
+                    if (profundidad == 0) {
+                        if (c == '[') {
+                            // Un arreglo anidado directamente en el arreglo raíz no es un objeto
+                            continue;
+                        }
+                        actual.append(c);
+                    }
+                    profundidad++;
+                }
+                case '}', ']' -> {
+                    if (profundidad == 0) {
+                        if (c == ']') {
+                            // Fin del arreglo raíz
+                            dentroDelArreglo = false;
+                        }
+                        continue;
+                    }
+                    profundidad--;
+                    if (profundidad == 0) {
+                        completos.add(actual.toString());
+                        actual.setLength(0);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return completos;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.entrevista.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Utilidades para construir claves de caché a partir de contenido.
+ */
+public final class HashUtil {
+
+    private HashUtil() {
+    }
+
+    /**
+     * SHA-256 en hexadecimal de las partes dadas; cada parte se separa con un byte nulo
+     * para que ("ab", "c") y ("a", "bc") no colisionen.
+     */
+    public static String sha256(String... partes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String parte : partes) {
+                if (parte != null) {
+                    digest.update(parte.getBytes(StandardCharsets.UTF_8));
+                }
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Normaliza un texto libre para comparar contenido: Unicode NFC, minúsculas y espacios colapsados.
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String normalizado = Normalizer.normalize(texto, Normalizer.Form.NFC);
+        return normalizado.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
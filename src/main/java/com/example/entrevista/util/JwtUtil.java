@@ -1,11 +1,13 @@
 package com.example.entrevista.util;
 
+import com.example.entrevista.security.AnilloClavesJwt;
+import com.example.entrevista.security.TokenJwtVerificado;
+import com.example.entrevista.security.UserPrincipal;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -13,11 +15,16 @@ import java.util.Map;
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    // Claves de firma (RS256 con kid, o HS256 con jwt.secret) y verificación por kid
+    @Autowired
+    private AnilloClavesJwt anilloClaves;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+    // El parser se construye una vez (es thread-safe); la clave de cada token la resuelve el anillo
+    private JwtParser parser;
+
+    @PostConstruct
+    void inicializar() {
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(anilloClaves.getResolver()).build();
     }
 
     public String generateToken(String username, String role, Long userId, String nombre, String apellidoPaterno, String apellidoMaterno) {
@@ -33,12 +40,11 @@ public class JwtUtil {
         String userType = (apellidoPaterno != null || apellidoMaterno != null) ? "USUARIO" : "EMPRESA";
         claims.put("userType", userType);
         
-        return Jwts.builder()
+        return anilloClaves.firmar(Jwts.builder()
                 .setClaims(claims)
                 .setSubject(username)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60)))
                 .compact();
     }
 
@@ -48,11 +54,24 @@ public class JwtUtil {
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Verifica la firma y la expiración una sola vez y construye el principal a partir de esos claims,
+     * en lugar de volver a parsear el token por cada extract*.
+     */
+    public TokenJwtVerificado verificar(String token) {
+        Claims claims = extractAllClaims(token);
+        Object userId = claims.get("userId");
+        UserPrincipal principal = new UserPrincipal(
+                claims.getSubject(),
+                userId != null ? ((Number) userId).longValue() : null,
+                claims.get("nombre", String.class),
+                claims.get("apellidoPaterno", String.class),
+                claims.get("apellidoMaterno", String.class),
+                claims.get("userType", String.class));
+        return new TokenJwtVerificado(principal, claims.get("role", String.class), claims.getExpiration());
     }
 
     public String extractUsername(String token) {
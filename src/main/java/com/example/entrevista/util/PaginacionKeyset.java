@@ -0,0 +1,75 @@
+package com.example.entrevista.util;
+
+import com.example.entrevista.DTO.PaginaResponse;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Paginación por cursor (seek) sobre el id: cada página continúa desde el último id entregado,
+ * así que el coste no crece con la profundidad y las filas nuevas no desplazan las páginas ya leídas.
+ * El cursor viaja en Base64 URL-safe para que el cliente lo trate como opaco.
+ */
+public final class PaginacionKeyset {
+
+    public static final int LIMITE_POR_DEFECTO = 20;
+    public static final int LIMITE_MAXIMO = 100;
+
+    private static final String PREFIJO = "id:";
+
+    private PaginacionKeyset() {
+    }
+
+    /**
+     * Posición desde la que continuar; sin cursor se empieza por el principio.
+     * Lanza IllegalArgumentException si el cursor no es válido.
+     */
+    public static ScrollPosition posicion(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String decodificado = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decodificado.startsWith(PREFIJO)) {
+                throw new IllegalArgumentException("Cursor de paginación no válido");
+            }
+            long id = Long.parseLong(decodificado.substring(PREFIJO.length()));
+            return ScrollPosition.forward(Map.of("id", id));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException y errores de Base64 también son IllegalArgumentException
+            throw new IllegalArgumentException("Cursor de paginación no válido", e);
+        }
+    }
+
+    /**
+     * Tamaño de página solicitado, acotado a [1, LIMITE_MAXIMO].
+     */
+    public static Limit limite(Integer solicitado) {
+        if (solicitado == null) {
+            return Limit.of(LIMITE_POR_DEFECTO);
+        }
+        return Limit.of(Math.max(1, Math.min(solicitado, LIMITE_MAXIMO)));
+    }
+
+    public static String cursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((PREFIJO + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Convierte la ventana devuelta por el repositorio en la respuesta de la API.
+     */
+    public static <T> PaginaResponse<T> pagina(Window<T> ventana, Function<T, Long> id) {
+        List<T> elementos = ventana.getContent();
+        String siguiente = ventana.hasNext() && !elementos.isEmpty()
+            ? cursor(id.apply(elementos.get(elementos.size() - 1)))
+            : null;
+        return new PaginaResponse<>(elementos, siguiente, siguiente != null);
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.entrevista.util;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Planificador de llamadas a un LLM: reemplaza al simple límite de concurrencia.
+ *
+ * Una llamada solo arranca cuando hay cupo de concurrencia y saldo en los dos token buckets
+ * del upstream (peticiones por minuto y tokens por minuto). Las que esperan se atienden por
+ * prioridad: las interactivas siempre pasan antes que las de segundo plano. Nada bloquea hilos:
+ * la espera es una suscripción pendiente que se concede al liberar un cupo o al rellenarse los buckets.
+ */
+public class PlanificadorLlm {
+
+    public enum Prioridad { INTERACTIVA, SEGUNDO_PLANO }
+
+    private final int maxConcurrencia;
+    private final double capacidadPeticiones;
+    private final double capacidadTokens;
+    private final double peticionesPorNano;
+    private final double tokensPorNano;
+
+    private final Object lock = new Object();
+    private final Map<Prioridad, ArrayDeque<Solicitud>> colas = new EnumMap<>(Prioridad.class);
+    private final Map<Prioridad, Timer> esperas = new EnumMap<>(Prioridad.class);
+    private int enCurso;
+    private double peticionesDisponibles;
+    private double tokensDisponibles;
+    private long ultimoRelleno = System.nanoTime();
+    private boolean despachoProgramado;
+
+    public PlanificadorLlm(String upstream, int maxConcurrencia, int peticionesPorMinuto, long tokensPorMinuto,
+                           MeterRegistry meterRegistry) {
+        if (maxConcurrencia < 1 || peticionesPorMinuto < 1 || tokensPorMinuto < 1) {
+            throw new IllegalArgumentException("Los límites del planificador deben ser mayores que cero");
+        }
+        this.maxConcurrencia = maxConcurrencia;
+        this.capacidadPeticiones = peticionesPorMinuto;
+        this.capacidadTokens = tokensPorMinuto;
+        this.peticionesPorNano = peticionesPorMinuto / (double) TimeUnit.MINUTES.toNanos(1);
+        this.tokensPorNano = tokensPorMinuto / (double) TimeUnit.MINUTES.toNanos(1);
+        this.peticionesDisponibles = capacidadPeticiones;
+        this.tokensDisponibles = capacidadTokens;
+
+        for (Prioridad prioridad : Prioridad.values()) {
+            ArrayDeque<Solicitud> cola = new ArrayDeque<>();
+            colas.put(prioridad, cola);
+            String etiqueta = prioridad.name().toLowerCase();
+            Gauge.builder("llm.planificador.cola", this, p -> p.profundidad(prioridad))
+                .description("Llamadas al LLM esperando turno")
+                .tags("upstream", upstream, "prioridad", etiqueta)
+                .register(meterRegistry);
+            esperas.put(prioridad, Timer.builder("llm.planificador.espera")
+                .description("Tiempo de espera en cola antes de llamar al LLM")
+                .tags("upstream", upstream, "prioridad", etiqueta)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry));
+        }
+        Gauge.builder("llm.upstream.llamadas.en_curso", this, PlanificadorLlm::getEnCurso)
+            .description("Llamadas al LLM en vuelo")
+            .tag("upstream", upstream)
+            .register(meterRegistry);
+        Gauge.builder("llm.upstream.llamadas.max", this, PlanificadorLlm::getMaxConcurrencia)
+            .tag("upstream", upstream)
+            .register(meterRegistry);
+        Gauge.builder("llm.planificador.tokens.disponibles", this, PlanificadorLlm::getTokensDisponibles)
+            .tag("upstream", upstream)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta la llamada cuando el planificador le da turno. La función recibe el permiso
+     * para poder informar los tokens realmente consumidos.
+     */
+    public <T> Mono<T> ejecutar(Prioridad prioridad, long tokensEstimados, Function<Permiso, Mono<T>> llamada) {
+        return Mono.usingWhen(adquirir(prioridad, tokensEstimados), llamada, permiso -> Mono.fromRunnable(permiso::liberar));
+    }
+
+    /**
+     * Variante para streaming: el cupo se mantiene hasta que el stream termina, falla o se cancela.
+     */
+    public <T> Flux<T> ejecutarFlux(Prioridad prioridad, long tokensEstimados, Function<Permiso, Flux<T>> llamada) {
+        return Flux.usingWhen(adquirir(prioridad, tokensEstimados), llamada, permiso -> Mono.fromRunnable(permiso::liberar));
+    }
+
+    public int getMaxConcurrencia() {
+        return maxConcurrencia;
+    }
+
+    public int getEnCurso() {
+        synchronized (lock) {
+            return enCurso;
+        }
+    }
+
+    public int profundidad(Prioridad prioridad) {
+        synchronized (lock) {
+            return colas.get(prioridad).size();
+        }
+    }
+
+    public double getTokensDisponibles() {
+        synchronized (lock) {
+            rellenar(System.nanoTime());
+            return tokensDisponibles;
+        }
+    }
+
+    private Mono<Permiso> adquirir(Prioridad prioridad, long tokensEstimados) {
+        return Mono.create(sink -> {
+            // Una petición mayor que el bucket completo nunca entraría: se limita a su capacidad
+            double tokens = Math.min(Math.max(tokensEstimados, 1), capacidadTokens);
+            Solicitud solicitud = new Solicitud(prioridad, tokens, sink);
+            synchronized (lock) {
+                colas.get(prioridad).addLast(solicitud);
+            }
+            sink.onCancel(() -> {
+                boolean enCola;
+                synchronized (lock) {
+                    enCola = colas.get(prioridad).remove(solicitud);
+                }
+                if (!enCola && solicitud.permiso != null) {
+                    // Se canceló justo después de concederse
+                    solicitud.permiso.liberar();
+                }
+            });
+            despachar();
+        });
+    }
+
+    private void despachar() {
+        List<Solicitud> concedidas = new ArrayList<>();
+        synchronized (lock) {
+            while (enCurso < maxConcurrencia) {
+                Solicitud siguiente = siguienteEnCola();
+                if (siguiente == null) {
+                    break;
+                }
+                long ahora = System.nanoTime();
+                rellenar(ahora);
+                if (peticionesDisponibles >= 1 && tokensDisponibles >= siguiente.tokens) {
+                    colas.get(siguiente.prioridad).pollFirst();
+                    peticionesDisponibles -= 1;
+                    tokensDisponibles -= siguiente.tokens;
+                    enCurso++;
+                    siguiente.permiso = new Permiso(siguiente.tokens);
+                    esperas.get(siguiente.prioridad).record(ahora - siguiente.encoladaEn, TimeUnit.NANOSECONDS);
+                    concedidas.add(siguiente);
+                } else {
+                    programarDespacho(nanosHastaSaldo(siguiente.tokens));
+                    break;
+                }
+            }
+        }
+        // Se emite fuera del lock: la llamada puede empezar en este mismo hilo
+        concedidas.forEach(solicitud -> solicitud.sink.success(solicitud.permiso));
+    }
+
+    private Solicitud siguienteEnCola() {
+        for (Prioridad prioridad : Prioridad.values()) {
+            Solicitud primera = colas.get(prioridad).peekFirst();
+            if (primera != null) {
+                return primera;
+            }
+        }
+        return null;
+    }
+
+    private void rellenar(long ahora) {
+        long transcurrido = ahora - ultimoRelleno;
+        if (transcurrido <= 0) {
+            return;
+        }
+        peticionesDisponibles = Math.min(capacidadPeticiones, peticionesDisponibles + transcurrido * peticionesPorNano);
+        tokensDisponibles = Math.min(capacidadTokens, tokensDisponibles + transcurrido * tokensPorNano);
+        ultimoRelleno = ahora;
+    }
+
+    private long nanosHastaSaldo(double tokens) {
+        double faltanPeticiones = Math.max(0, 1 - peticionesDisponibles) / peticionesPorNano;
+        double faltanTokens = Math.max(0, tokens - tokensDisponibles) / tokensPorNano;
+        return (long) Math.ceil(Math.max(faltanPeticiones, faltanTokens));
+    }
+
+    private void programarDespacho(long nanos) {
+        if (despachoProgramado) {
+            return;
+        }
+        despachoProgramado = true;
+        Schedulers.parallel().schedule(() -> {
+            synchronized (lock) {
+                despachoProgramado = false;
+            }
+            despachar();
+        }, Math.max(nanos, TimeUnit.MILLISECONDS.toNanos(1)), TimeUnit.NANOSECONDS);
+    }
+
+    private static class Solicitud {
+        private final Prioridad prioridad;
+        private final double tokens;
+        private final MonoSink<Permiso> sink;
+        private final long encoladaEn = System.nanoTime();
+        private volatile Permiso permiso;
+
+        private Solicitud(Prioridad prioridad, double tokens, MonoSink<Permiso> sink) {
+            this.prioridad = prioridad;
+            this.tokens = tokens;
+            this.sink = sink;
+        }
+    }
+
+    /**
+     * Turno concedido para una llamada. Se libera una sola vez, aunque se invoque varias.
+     */
+    public class Permiso {
+        private final double tokensReservados;
+        private final AtomicBoolean liberado = new AtomicBoolean();
+
+        private Permiso(double tokensReservados) {
+            this.tokensReservados = tokensReservados;
+        }
+
+        /**
+         * Ajusta el bucket de tokens con el consumo real informado por el upstream
+         * (devuelve lo sobrante de la estimación o descuenta el exceso).
+         */
+        public void registrarTokensReales(long tokensReales) {
+            if (tokensReales <= 0) {
+                return;
+            }
+            synchronized (lock) {
+                tokensDisponibles = Math.min(capacidadTokens, tokensDisponibles + tokensReservados - tokensReales);
+            }
+        }
+
+        private void liberar() {
+            if (!liberado.compareAndSet(false, true)) {
+                return;
+            }
+            synchronized (lock) {
+                enCurso--;
+            }
+            despachar();
+        }
+    }
+}
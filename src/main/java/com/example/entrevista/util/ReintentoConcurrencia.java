@@ -0,0 +1,67 @@
+package com.example.entrevista.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta una operación en su propia transacción y la repite si choca con otra escritura concurrente
+ * (versión @Version desactualizada o bloqueo no concedido), con espera exponencial y jitter entre intentos.
+ *
+ * Si ya hay una transacción activa no se puede reintentar (quedaría marcada rollback-only):
+ * la operación se ejecuta una sola vez dentro de ella y el conflicto se propaga a quien la abrió.
+ */
+@Component
+public class ReintentoConcurrencia {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReintentoConcurrencia.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxIntentos;
+    private final long esperaBaseMs;
+
+    public ReintentoConcurrencia(PlatformTransactionManager transactionManager,
+                                 @Value("${app.concurrencia.max-intentos:10}") int maxIntentos,
+                                 @Value("${app.concurrencia.espera-base:10ms}") Duration esperaBase) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxIntentos = Math.max(1, maxIntentos);
+        this.esperaBaseMs = Math.max(1, esperaBase.toMillis());
+    }
+
+    public <T> T ejecutar(String operacion, Supplier<T> accion) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return accion.get();
+        }
+        for (int intento = 1; ; intento++) {
+            try {
+                return transactionTemplate.execute(estado -> accion.get());
+            } catch (ConcurrencyFailureException e) {
+                if (intento >= maxIntentos) {
+                    logger.warn("{}: conflicto de concurrencia tras {} intentos", operacion, intento);
+                    throw e;
+                }
+                logger.debug("{}: conflicto de concurrencia (intento {}/{}), reintentando", operacion, intento, maxIntentos);
+                esperar(intento);
+            }
+        }
+    }
+
+    private void esperar(int intento) {
+        long maximo = esperaBaseMs << Math.min(intento - 1, 5);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, maximo + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reintento interrumpido", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+-- Cola de pre-generación de preguntas. Es posterior al esquema inicial, así que va en su propia migración:
+-- las bases existentes se registran en la versión 1 y solo ejecutan las siguientes.
+-- IF NOT EXISTS: ddl-auto=update ya pudo crearla antes de pasar a Flyway.
+
+CREATE TABLE IF NOT EXISTS trabajo_pregeneracion (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    postulacion_id BIGINT NOT NULL,
+    estado VARCHAR(50) NOT NULL,
+    intentos INT NOT NULL,
+    ultimo_error VARCHAR(1000),
+    fecha_creacion DATETIME(6) NOT NULL,
+    fecha_actualizacion DATETIME(6) NOT NULL,
+    CONSTRAINT uk_trabajo_pregeneracion_postulacion UNIQUE (postulacion_id)
+);
@@ -0,0 +1,100 @@
+-- Esquema inicial, equivalente al que generaba ddl-auto a partir de las entidades.
+-- Compatible con H2 y MySQL: en bases ya existentes no se ejecuta (baseline en la versión 1).
+
+CREATE TABLE empresa (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    nombre VARCHAR(255),
+    email VARCHAR(255),
+    password VARCHAR(255),
+    telefono VARCHAR(255),
+    direccion VARCHAR(255),
+    descripcion VARCHAR(255),
+    rol VARCHAR(50),
+    CONSTRAINT uk_empresa_nombre UNIQUE (nombre),
+    CONSTRAINT uk_empresa_email UNIQUE (email)
+);
+
+CREATE TABLE usuario (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    email VARCHAR(255),
+    nombre VARCHAR(255),
+    apellido_paterno VARCHAR(255),
+    apellido_materno VARCHAR(255),
+    nacimiento DATE,
+    telefono INT NOT NULL,
+    password VARCHAR(255),
+    rol VARCHAR(50),
+    CONSTRAINT uk_usuario_email UNIQUE (email)
+);
+
+CREATE TABLE convocatoria (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    titulo VARCHAR(255),
+    descripcion LONGTEXT,
+    puesto LONGTEXT,
+    activo BOOLEAN NOT NULL,
+    fecha_publicacion VARCHAR(255),
+    fecha_cierre VARCHAR(255),
+    dificultad INT NOT NULL,
+    empresa_id BIGINT,
+    CONSTRAINT fk_convocatoria_empresa FOREIGN KEY (empresa_id) REFERENCES empresa (id)
+);
+
+CREATE TABLE postulacion (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    usuario_id BIGINT,
+    convocatoria_id BIGINT,
+    estado VARCHAR(50) NOT NULL,
+    preguntas_generadas BOOLEAN DEFAULT FALSE NOT NULL,
+    entrevista_session_id BIGINT,
+    CONSTRAINT fk_postulacion_usuario FOREIGN KEY (usuario_id) REFERENCES usuario (id),
+    CONSTRAINT fk_postulacion_convocatoria FOREIGN KEY (convocatoria_id) REFERENCES convocatoria (id)
+);
+
+CREATE TABLE pregunta (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    numero INT NOT NULL,
+    texto_pregunta VARCHAR(255),
+    tipo VARCHAR(255),
+    tipo_legible VARCHAR(255),
+    score INT NOT NULL,
+    convocatoria_id BIGINT,
+    postulacion_id BIGINT,
+    CONSTRAINT fk_pregunta_convocatoria FOREIGN KEY (convocatoria_id) REFERENCES convocatoria (id),
+    CONSTRAINT fk_pregunta_postulacion FOREIGN KEY (postulacion_id) REFERENCES postulacion (id)
+);
+
+CREATE TABLE evaluacion (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    postulacion_id BIGINT,
+    pregunta_id BIGINT,
+    fecha_evaluacion DATETIME(6),
+    evaluacion_completa VARCHAR(5000),
+    respuesta VARCHAR(5000),
+    claridad_estructura INT,
+    dominio_tecnico INT,
+    pertinencia INT,
+    comunicacion_seguridad INT,
+    puntaje_total DOUBLE,
+    porcentaje_obtenido DOUBLE,
+    estado VARCHAR(255),
+    CONSTRAINT fk_evaluacion_postulacion FOREIGN KEY (postulacion_id) REFERENCES postulacion (id),
+    CONSTRAINT fk_evaluacion_pregunta FOREIGN KEY (pregunta_id) REFERENCES pregunta (id)
+);
+
+CREATE TABLE entrevista_sessions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    postulacion_id BIGINT NOT NULL,
+    preguntas_json TEXT,
+    respuestas_json TEXT,
+    evaluaciones_json TEXT,
+    estado_sesion VARCHAR(50),
+    fecha_inicio DATETIME(6),
+    fecha_ultima_actividad DATETIME(6),
+    fecha_finalizacion DATETIME(6),
+    progreso_completado INT,
+    puntuacion_total DOUBLE,
+    es_completada BOOLEAN,
+    metadatos_json TEXT,
+    CONSTRAINT fk_entrevista_sessions_postulacion FOREIGN KEY (postulacion_id) REFERENCES postulacion (id)
+);
@@ -0,0 +1,19 @@
+-- Índices para las búsquedas más frecuentes (antes recorrían la tabla completa).
+
+-- Preguntas y evaluaciones de una postulación
+CREATE INDEX idx_pregunta_postulacion_numero ON pregunta (postulacion_id, numero);
+CREATE INDEX idx_evaluacion_postulacion_id ON evaluacion (postulacion_id, id);
+
+-- Postulaciones filtradas por usuario/convocatoria y estado
+CREATE INDEX idx_postulacion_usuario_estado ON postulacion (usuario_id, estado);
+CREATE INDEX idx_postulacion_convocatoria_estado ON postulacion (convocatoria_id, estado);
+
+-- Paginación por cursor (filtro + id)
+CREATE INDEX idx_postulacion_convocatoria_id ON postulacion (convocatoria_id, id);
+CREATE INDEX idx_postulacion_estado_id ON postulacion (estado, id);
+CREATE INDEX idx_convocatoria_activo_id ON convocatoria (activo, id);
+CREATE INDEX idx_convocatoria_empresa_id ON convocatoria (empresa_id, id);
+
+-- Sesiones de entrevista: búsqueda por postulación y barrido de sesiones inactivas
+CREATE INDEX idx_entrevista_sessions_postulacion ON entrevista_sessions (postulacion_id);
+CREATE INDEX idx_entrevista_sessions_completada_actividad ON entrevista_sessions (es_completada, fecha_ultima_actividad);
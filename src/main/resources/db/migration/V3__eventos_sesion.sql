@@ -0,0 +1,21 @@
+-- Respuestas y evaluaciones de cada sesión como eventos de solo inserción, en lugar de reescribir
+-- los JSON respuestas_json/evaluaciones_json completos en cada cambio.
+
+CREATE TABLE session_event (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    session_id BIGINT NOT NULL,
+    tipo VARCHAR(50) NOT NULL,
+    pregunta_id BIGINT,
+    porcentaje_obtenido DOUBLE,
+    datos_json TEXT,
+    fecha_creacion DATETIME(6) NOT NULL,
+    CONSTRAINT fk_session_event_sesion FOREIGN KEY (session_id) REFERENCES entrevista_sessions (id)
+);
+
+CREATE INDEX idx_session_event_sesion_tipo_pregunta ON session_event (session_id, tipo, pregunta_id);
+
+-- Snapshot de la sesión mantenido de forma incremental. Las sesiones con JSON antiguos se pasan
+-- a eventos la primera vez que reciben una respuesta o evaluación nueva
+ALTER TABLE entrevista_sessions ADD COLUMN total_respuestas INT DEFAULT 0 NOT NULL;
+ALTER TABLE entrevista_sessions ADD COLUMN total_evaluaciones INT DEFAULT 0 NOT NULL;
+ALTER TABLE entrevista_sessions ADD COLUMN suma_porcentajes DOUBLE DEFAULT 0 NOT NULL;
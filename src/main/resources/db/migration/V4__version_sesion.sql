@@ -0,0 +1,2 @@
+-- Control de concurrencia optimista (@Version) de las sesiones de entrevista
+ALTER TABLE entrevista_sessions ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,21 @@
+-- Sumas por criterio de las evaluaciones de cada postulación, mantenidas al insertar cada evaluación,
+-- para que el resumen de resultados no tenga que recorrerlas todas en cada lectura.
+
+ALTER TABLE postulacion ADD COLUMN total_evaluaciones INT DEFAULT 0 NOT NULL;
+ALTER TABLE postulacion ADD COLUMN suma_claridad_estructura BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE postulacion ADD COLUMN suma_dominio_tecnico BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE postulacion ADD COLUMN suma_pertinencia BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE postulacion ADD COLUMN suma_comunicacion_seguridad BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE postulacion ADD COLUMN suma_porcentajes DOUBLE DEFAULT 0 NOT NULL;
+ALTER TABLE postulacion ADD COLUMN fecha_ultima_evaluacion DATETIME(6);
+
+-- Relleno de las postulaciones que ya tienen evaluaciones
+UPDATE postulacion p SET
+    total_evaluaciones = (SELECT COUNT(*) FROM evaluacion e WHERE e.postulacion_id = p.id),
+    suma_claridad_estructura = (SELECT COALESCE(SUM(e.claridad_estructura), 0) FROM evaluacion e WHERE e.postulacion_id = p.id),
+    suma_dominio_tecnico = (SELECT COALESCE(SUM(e.dominio_tecnico), 0) FROM evaluacion e WHERE e.postulacion_id = p.id),
+    suma_pertinencia = (SELECT COALESCE(SUM(e.pertinencia), 0) FROM evaluacion e WHERE e.postulacion_id = p.id),
+    suma_comunicacion_seguridad = (SELECT COALESCE(SUM(e.comunicacion_seguridad), 0) FROM evaluacion e WHERE e.postulacion_id = p.id),
+    suma_porcentajes = (SELECT COALESCE(SUM(e.porcentaje_obtenido), 0) FROM evaluacion e WHERE e.postulacion_id = p.id),
+    fecha_ultima_evaluacion = (SELECT MAX(e.fecha_evaluacion) FROM evaluacion e WHERE e.postulacion_id = p.id)
+WHERE EXISTS (SELECT 1 FROM evaluacion e WHERE e.postulacion_id = p.id);
@@ -0,0 +1,91 @@
+package com.example.entrevista;
+
+import com.example.entrevista.model.Convocatoria;
+import com.example.entrevista.model.Empresa;
+import com.example.entrevista.model.Evaluacion;
+import com.example.entrevista.model.Postulacion;
+import com.example.entrevista.model.Pregunta;
+import com.example.entrevista.model.Rol;
+import com.example.entrevista.model.Usuario;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.Date;
+
+/**
+ * Datos comunes de las pruebas de persistencia: una empresa con una convocatoria activa, un candidato
+ * postulado a ella y las preguntas y evaluaciones de esa postulación.
+ */
+public final class DatosDePrueba {
+
+    private DatosDePrueba() {
+    }
+
+    /**
+     * Persiste la empresa, el candidato, la convocatoria y una postulación del candidato a ella.
+     */
+    public static Postulacion postulacion(TestEntityManager entityManager) {
+        Empresa empresa = new Empresa();
+        empresa.setNombre("Empresa prueba");
+        empresa.setEmail("empresa@prueba.com");
+        empresa.setRol(Rol.EMPRESA);
+        entityManager.persist(empresa);
+
+        Usuario usuario = new Usuario();
+        usuario.setEmail("candidato@prueba.com");
+        usuario.setNombre("Candidato");
+        usuario.setRol(Rol.USUARIO);
+        entityManager.persist(usuario);
+
+        Convocatoria convocatoria = new Convocatoria();
+        convocatoria.setTitulo("Backend");
+        convocatoria.setPuesto("Desarrollador backend");
+        convocatoria.setActivo(true);
+        convocatoria.setDificultad(5);
+        convocatoria.setEmpresa(empresa);
+        entityManager.persist(convocatoria);
+
+        return postulacion(entityManager, usuario, convocatoria);
+    }
+
+    /**
+     * Persiste otra postulación, p. ej. del mismo candidato a la misma convocatoria.
+     */
+    public static Postulacion postulacion(TestEntityManager entityManager, Usuario usuario, Convocatoria convocatoria) {
+        Postulacion postulacion = new Postulacion();
+        postulacion.setUsuario(usuario);
+        postulacion.setConvocatoria(convocatoria);
+        entityManager.persist(postulacion);
+        return postulacion;
+    }
+
+    /**
+     * Pregunta de la postulación, sin persistir.
+     */
+    public static Pregunta pregunta(Postulacion postulacion, int numero) {
+        Pregunta pregunta = new Pregunta();
+        pregunta.setNumero(numero);
+        pregunta.setTextoPregunta("Pregunta " + numero);
+        pregunta.setTipo("technical_knowledge");
+        pregunta.setScore(10);
+        pregunta.setConvocatoria(postulacion.getConvocatoria());
+        pregunta.setPostulacion(postulacion);
+        return pregunta;
+    }
+
+    /**
+     * Evaluación completa (todos los criterios) de la pregunta, sin persistir.
+     */
+    public static Evaluacion evaluacion(Pregunta pregunta, Postulacion postulacion) {
+        Evaluacion evaluacion = new Evaluacion();
+        evaluacion.setPregunta(pregunta);
+        evaluacion.setPostulacion(postulacion);
+        evaluacion.setFechaEvaluacion(new Date());
+        evaluacion.setEvaluacionCompleta("{}");
+        evaluacion.setClaridadEstructura(3);
+        evaluacion.setDominioTecnico(3);
+        evaluacion.setPertinencia(3);
+        evaluacion.setComunicacionSeguridad(3);
+        evaluacion.setPorcentajeObtenido(75.0);
+        return evaluacion;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.entrevista.benchmark;
+
+import com.example.entrevista.filter.JwtAuthenticationFilter;
+import com.example.entrevista.security.AnilloClavesJwt;
+import com.example.entrevista.security.CacheTokensJwt;
+import com.example.entrevista.security.TokenJwtVerificado;
+import com.example.entrevista.security.UserPrincipal;
+import com.example.entrevista.util.JwtUtil;
+import ch.qos.logback.classic.Level;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.StreamHandler;
+
+/**
+ * Peticiones por milisegundo al autenticar un JWT: los siete parseos del filtro original, un único parseo,
+ * el filtro con los logs INFO por petición de antes (filtroAnterior) y el filtro actual (filtroConCache).
+ * Los dos filtros usan la misma caché de tokens, así que la diferencia entre ellos es la de logs y asignaciones.
+ *
+ * Se ejecuta desde el IDE (main) o, tras mvn test-compile, con
+ * java -cp target/test-classes:target/classes:$(dependencias de test) com.example.entrevista.benchmark.JwtAuthenticationFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private JwtUtil jwtUtil;
+    private CacheTokensJwt cacheTokensJwt;
+    private JwtAuthenticationFilter filtro;
+    private FiltroAnterior filtroAnterior;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "anilloClaves", new AnilloClavesJwt("clave-de-benchmark-de-al-menos-treinta-y-dos-bytes", "", "", true));
+        ReflectionTestUtils.invokeMethod(jwtUtil, "inicializar");
+        cacheTokensJwt = new CacheTokensJwt(jwtUtil, 10_000, new SimpleMeterRegistry());
+        filtro = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filtro, "cacheTokensJwt", cacheTokensJwt);
+        filtroAnterior = new FiltroAnterior(cacheTokensJwt);
+        token = jwtUtil.generateToken("candidato@prueba.com", "USUARIO", 7L, "Ana", "Pérez", "López");
+        // Nivel de producción (INFO): sin configuración, logback deja DEBUG en el filtro actual
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(JwtAuthenticationFilter.class)).setLevel(Level.INFO);
+    }
+
+    // Lo que hacía el filtro antes: cada extract* verifica la firma y parsea el token de nuevo
+    @Benchmark
+    public void sieteParseos(Blackhole bh) {
+        bh.consume(jwtUtil.extractUsername(token));
+        bh.consume(jwtUtil.extractRole(token));
+        bh.consume(jwtUtil.extractUserId(token));
+        bh.consume(jwtUtil.extractNombre(token));
+        bh.consume(jwtUtil.extractApellidoPaterno(token));
+        bh.consume(jwtUtil.extractApellidoMaterno(token));
+        bh.consume(jwtUtil.extractUserType(token));
+    }
+
+    @Benchmark
+    public Object unParseo() {
+        return jwtUtil.verificar(token);
+    }
+
+    @Benchmark
+    public Object filtroAnterior() throws Exception {
+        return filtrar(filtroAnterior);
+    }
+
+    @Benchmark
+    public Object filtroConCache() throws Exception {
+        return filtrar(filtro);
+    }
+
+    private Object filtrar(OncePerRequestFilter filtroJwt) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/postulaciones/usuario/7");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filtroJwt.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * Referencia: el filtro con los logs INFO concatenados de cada petición, la autoridad creada en cada
+     * petición y un WebAuthenticationDetailsSource nuevo. Los logs se formatean pero se descartan.
+     */
+    static class FiltroAnterior extends OncePerRequestFilter {
+
+        private static final Logger logger = Logger.getLogger(FiltroAnterior.class.getName());
+
+        static {
+            logger.setUseParentHandlers(false);
+            logger.addHandler(new StreamHandler(OutputStream.nullOutputStream(), new SimpleFormatter()));
+        }
+
+        private final CacheTokensJwt cacheTokensJwt;
+
+        FiltroAnterior(CacheTokensJwt cacheTokensJwt) {
+            this.cacheTokensJwt = cacheTokensJwt;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            String header = request.getHeader("Authorization");
+            logger.info("=== JWT FILTER DEBUG ===");
+            logger.info("Request to: " + request.getRequestURI());
+            logger.info("Authorization header: " + (header != null ? "Present" : "Missing"));
+            if (header != null && header.startsWith("Bearer ")) {
+                TokenJwtVerificado verificado = cacheTokensJwt.verificar(header.substring(7));
+                UserPrincipal userPrincipal = verificado.principal();
+                String role = verificado.rol();
+                logger.info("JWT Token username: " + userPrincipal.getEmail());
+                logger.info("JWT Token role: " + role);
+                logger.info("JWT Token userId: " + userPrincipal.getId());
+                logger.info("JWT Token nombre: " + userPrincipal.getNombre());
+                logger.info("JWT Token userType: " + userPrincipal.getUserType());
+                SimpleGrantedAuthority authority = new SimpleGrantedAuthority(role.startsWith("ROLE_") ? role : "ROLE_" + role);
+                logger.info("Created authority: " + authority.getAuthority());
+                UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+                        userPrincipal, null, Collections.singletonList(authority));
+                auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(auth);
+                logger.info("Authentication set in SecurityContext for: " + userPrincipal.getEmail());
+                logger.info("Authorities in context: " + auth.getAuthorities());
+            }
+            logger.info("Current authentication: " + SecurityContextHolder.getContext().getAuthentication().getName());
+            logger.info("Current authorities: " + SecurityContextHolder.getContext().getAuthentication().getAuthorities());
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtAuthenticationFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
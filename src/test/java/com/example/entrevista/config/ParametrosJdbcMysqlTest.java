@@ -0,0 +1,21 @@
+package com.example.entrevista.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParametrosJdbcMysqlTest {
+
+    @Test
+    void completaLaUrlDeMysqlSinPisarLosValoresExplicitos() {
+        assertThat(ParametrosJdbcMysql.completarUrl("jdbc:mysql://db:3306/entrevista"))
+            .isEqualTo("jdbc:mysql://db:3306/entrevista?useCursorFetch=true&rewriteBatchedStatements=true");
+        assertThat(ParametrosJdbcMysql.completarUrl("jdbc:mysql://db:3306/entrevista?useSSL=false&usecursorfetch=false"))
+            .isEqualTo("jdbc:mysql://db:3306/entrevista?useSSL=false&usecursorfetch=false&rewriteBatchedStatements=true");
+    }
+
+    @Test
+    void noTocaOtrasBasesDeDatos() {
+        assertThat(ParametrosJdbcMysql.completarUrl("jdbc:h2:mem:prueba")).isEqualTo("jdbc:h2:mem:prueba");
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.entrevista.repository;
+
+import com.example.entrevista.DTO.PaginaResponse;
+import com.example.entrevista.DatosDePrueba;
+import com.example.entrevista.model.Convocatoria;
+import com.example.entrevista.model.Empresa;
+import com.example.entrevista.model.EstadoPostulacion;
+import com.example.entrevista.model.Postulacion;
+import com.example.entrevista.model.Pregunta;
+import com.example.entrevista.model.Usuario;
+import com.example.entrevista.util.PaginacionKeyset;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regresión de N+1: cuenta las sentencias SQL que ejecuta cada endpoint de listado, incluida la
+ * serialización JSON de la respuesta (que es donde se inicializan las relaciones LAZY).
+ * Los conteos no deben crecer con el número de filas.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ConsultasPorEndpointTest {
+
+    private static final int POSTULACIONES = 4;
+    private static final int PREGUNTAS_POR_POSTULACION = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PostulacionRepository postulacionRepository;
+
+    @Autowired
+    private PreguntaRepository preguntaRepository;
+
+    @Autowired
+    private EvaluacionRepository evaluacionRepository;
+
+    @Autowired
+    private ConvocatoriaRepository convocatoriaRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Statistics estadisticas;
+    private Empresa empresa;
+    private Usuario usuario;
+    private Convocatoria convocatoria;
+    private Postulacion primeraPostulacion;
+
+    @BeforeEach
+    void prepararDatos() {
+        primeraPostulacion = DatosDePrueba.postulacion(entityManager);
+        usuario = primeraPostulacion.getUsuario();
+        convocatoria = primeraPostulacion.getConvocatoria();
+        empresa = convocatoria.getEmpresa();
+
+        for (int i = 0; i < POSTULACIONES; i++) {
+            Postulacion postulacion = i == 0
+                ? primeraPostulacion : DatosDePrueba.postulacion(entityManager, usuario, convocatoria);
+            postulacion.setEstado(EstadoPostulacion.EN_EVALUACION);
+
+            for (int numero = 1; numero <= PREGUNTAS_POR_POSTULACION; numero++) {
+                Pregunta pregunta = DatosDePrueba.pregunta(postulacion, numero);
+                entityManager.persist(pregunta);
+                entityManager.persist(DatosDePrueba.evaluacion(pregunta, postulacion));
+            }
+        }
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // GET /api/postulaciones/usuario/{usuarioId}
+    @Test
+    void listadoDePostulacionesPorUsuario() {
+        assertThat(sentencias(() -> postulacionRepository.findByUsuarioId(usuario.getId()))).isEqualTo(1);
+    }
+
+    // GET /api/postulaciones/estado/{estado}
+    @Test
+    void listadoDePostulacionesPorEstado() {
+        assertThat(sentencias(() -> postulacionRepository.findByEstado(EstadoPostulacion.EN_EVALUACION))).isEqualTo(1);
+    }
+
+    // GET /api/postulaciones/{id}
+    @Test
+    void detalleDePostulacion() {
+        assertThat(sentencias(() -> postulacionRepository.findDetalleById(primeraPostulacion.getId()).orElseThrow())).isEqualTo(1);
+    }
+
+    // GET /api/preguntas/postulacion/{postulacionId}
+    @Test
+    void preguntasDeUnaPostulacion() {
+        assertThat(sentencias(() -> preguntaRepository.findByPostulacionId(primeraPostulacion.getId()))).isEqualTo(1);
+    }
+
+    // GET /api/preguntas/convocatoria/{convocatoriaId}
+    @Test
+    void preguntasDeUnaConvocatoria() {
+        assertThat(sentencias(() -> preguntaRepository.findByConvocatoriaId(convocatoria.getId()))).isEqualTo(1);
+    }
+
+    // GET /api/evaluaciones/postulacion/{postulacionId}: la colección de preguntas de la postulación va aparte
+    @Test
+    void evaluacionesDeUnaPostulacion() {
+        assertThat(sentencias(() -> evaluacionRepository.findDetalleByPostulacionId(primeraPostulacion.getId()))).isEqualTo(2);
+    }
+
+    // GET /api/evaluaciones/por-entrevista/{entrevistaId}: preguntas de todas las postulaciones en un solo lote
+    @Test
+    void evaluacionesPorEntrevista() {
+        assertThat(sentencias(() -> evaluacionRepository.findByEntrevistaId(empresa.getId()))).isEqualTo(2);
+    }
+
+    // GET /api/convocatorias/empresa/{empresaId}
+    @Test
+    void convocatoriasDeUnaEmpresa() {
+        assertThat(sentencias(() -> convocatoriaRepository.findByEmpresaId(empresa.getId()))).isEqualTo(1);
+    }
+
+    // GET /api/convocatorias/{id}
+    @Test
+    void detalleDeConvocatoria() {
+        assertThat(sentencias(() -> convocatoriaRepository.findConEmpresaById(convocatoria.getId()).orElseThrow())).isEqualTo(1);
+    }
+
+    // GET /api/postulaciones/convocatoria/{convocatoriaId}/pagina: la página más un lote para sus preguntas
+    @Test
+    void paginaDePostulacionesPorConvocatoria() {
+        assertThat(sentencias(() -> postulacionRepository.findByConvocatoriaIdOrderByIdAsc(
+            convocatoria.getId(), PaginacionKeyset.posicion(null), PaginacionKeyset.limite(null)).getContent())).isEqualTo(2);
+    }
+
+    // GET /api/evaluaciones/por-entrevista/{entrevistaId}/pagina
+    @Test
+    void paginaDeEvaluacionesPorEntrevista() {
+        assertThat(sentencias(() -> evaluacionRepository.findByPostulacionConvocatoriaEmpresaIdOrderByIdAsc(
+            empresa.getId(), PaginacionKeyset.posicion(null), PaginacionKeyset.limite(5)).getContent())).isEqualTo(2);
+    }
+
+    // Recorrer todas las páginas con el cursor devuelve cada postulación una sola vez y en orden
+    @Test
+    void elCursorRecorreTodasLasPostulacionesSinRepetir() {
+        entityManager.flush();
+        entityManager.clear();
+        List<Long> vistas = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            PaginaResponse<Postulacion> pagina = PaginacionKeyset.pagina(postulacionRepository.findByEstadoOrderByIdAsc(
+                EstadoPostulacion.EN_EVALUACION, PaginacionKeyset.posicion(cursor), PaginacionKeyset.limite(3)),
+                Postulacion::getId);
+            pagina.getElementos().forEach(p -> vistas.add(p.getId()));
+            assertThat(pagina.isHayMas()).isEqualTo(pagina.getSiguienteCursor() != null);
+            cursor = pagina.getSiguienteCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertThat(paginas).isEqualTo(2);
+        assertThat(vistas).hasSize(POSTULACIONES).doesNotHaveDuplicates().isSorted();
+    }
+
+    // Ejecuta la consulta y serializa el resultado como lo haría el controlador
+    private long sentencias(Supplier<Object> consulta) {
+        entityManager.flush();
+        entityManager.clear();
+        estadisticas.clear();
+        try {
+            objectMapper.writeValueAsString(consulta.get());
+        } catch (Exception e) {
+            throw new AssertionError("No se pudo serializar la respuesta", e);
+        }
+        return estadisticas.getPrepareStatementCount();
+    }
+}
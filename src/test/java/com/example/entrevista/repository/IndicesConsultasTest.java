@@ -0,0 +1,58 @@
+package com.example.entrevista.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Comprueba con EXPLAIN de H2 que, tras aplicar las migraciones de Flyway, las búsquedas
+ * frecuentes usan un índice en lugar de recorrer la tabla completa.
+ */
+@DataJpaTest
+class IndicesConsultasTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void postulacionesPorUsuarioYEstado() {
+        assertThat(plan("SELECT id FROM postulacion WHERE usuario_id = 1 AND estado = 'PENDIENTE'"))
+            .containsIgnoringCase("idx_postulacion_usuario_estado");
+    }
+
+    @Test
+    void postulacionesPorConvocatoriaYEstado() {
+        assertThat(plan("SELECT id FROM postulacion WHERE convocatoria_id = 1 AND estado = 'PENDIENTE'"))
+            .containsIgnoringCase("idx_postulacion_convocatoria_estado");
+    }
+
+    @Test
+    void sesionesInactivas() {
+        assertThat(plan("SELECT id FROM entrevista_sessions WHERE fecha_ultima_actividad < CURRENT_TIMESTAMP " +
+                        "AND es_completada = FALSE"))
+            .containsIgnoringCase("idx_entrevista_sessions_completada_actividad");
+    }
+
+    @Test
+    void convocatoriasActivas() {
+        assertThat(plan("SELECT id FROM convocatoria WHERE activo = TRUE"))
+            .containsIgnoringCase("idx_convocatoria_activo_id");
+    }
+
+    // En estas H2 puede elegir el índice de la clave foránea, igual de válido: basta con que no haya tableScan
+    @Test
+    void busquedasPorPostulacion() {
+        assertThat(plan("SELECT id FROM pregunta WHERE postulacion_id = 1")).doesNotContain("tableScan");
+        assertThat(plan("SELECT id FROM evaluacion WHERE postulacion_id = 1")).doesNotContain("tableScan");
+        assertThat(plan("SELECT id FROM entrevista_sessions WHERE postulacion_id = 1")).doesNotContain("tableScan");
+    }
+
+    private String plan(String consulta) {
+        return String.valueOf(entityManager.getEntityManager()
+            .createNativeQuery("EXPLAIN " + consulta)
+            .getSingleResult());
+    }
+}
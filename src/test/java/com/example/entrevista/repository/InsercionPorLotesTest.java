@@ -0,0 +1,112 @@
+package com.example.entrevista.repository;
+
+import com.example.entrevista.DatosDePrueba;
+import com.example.entrevista.model.Evaluacion;
+import com.example.entrevista.model.Postulacion;
+import com.example.entrevista.model.Pregunta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Batches JDBC al guardar una entrevista: las preguntas y las evaluaciones se insertan con un batch
+ * por cada app.jdbc.tamanio-lote filas, en lugar de un INSERT por fila. Se cuentan las llamadas a
+ * JdbcTemplate.batchUpdate, no idas y vueltas de red: en MySQL cada batch es una sola ida y vuelta
+ * solo con rewriteBatchedStatements=true (ParametrosJdbcMysql).
+ * Las evaluaciones suman además sus criterios a los acumulados de la postulación.
+ */
+@DataJpaTest(properties = "app.jdbc.tamanio-lote=4")
+class InsercionPorLotesTest {
+
+    private static final int PREGUNTAS_POR_ENTREVISTA = 10;
+
+    @MockitoSpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PreguntaRepository preguntaRepository;
+
+    @Autowired
+    private EvaluacionRepository evaluacionRepository;
+
+    private Postulacion postulacion;
+
+    @BeforeEach
+    void prepararDatos() {
+        postulacion = DatosDePrueba.postulacion(entityManager);
+        entityManager.flush();
+    }
+
+    @Test
+    void unaEntrevistaCompletaSeGuardaEnPocosBatches() {
+        List<Pregunta> preguntas = new ArrayList<>();
+        for (int numero = 1; numero <= PREGUNTAS_POR_ENTREVISTA; numero++) {
+            preguntas.add(DatosDePrueba.pregunta(postulacion, numero));
+        }
+        preguntaRepository.insertarEnLote(preguntas);
+
+        List<Evaluacion> evaluaciones = new ArrayList<>();
+        for (Pregunta pregunta : preguntas) {
+            evaluaciones.add(DatosDePrueba.evaluacion(pregunta, postulacion));
+        }
+        evaluacionRepository.insertarEnLote(evaluaciones);
+
+        // 10 filas con lotes de 4: 3 batches por tabla, frente a 20 INSERT sueltos
+        verify(jdbcTemplate, times(6)).batchUpdate(
+            any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+
+        assertThat(preguntas).extracting(Pregunta::getId).doesNotContainNull().doesNotHaveDuplicates().isSorted();
+        assertThat(evaluaciones).extracting(Evaluacion::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(preguntaRepository.countByPostulacionId(postulacion.getId())).isEqualTo(PREGUNTAS_POR_ENTREVISTA);
+        assertThat(evaluacionRepository.countByPostulacionId(postulacion.getId())).isEqualTo(PREGUNTAS_POR_ENTREVISTA);
+    }
+
+    @Test
+    void insertarEvaluacionesActualizaLosAcumuladosDeLaPostulacion() {
+        List<Evaluacion> evaluaciones = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Evaluacion evaluacion = new Evaluacion();
+            evaluacion.setPostulacion(postulacion);
+            evaluacion.setFechaEvaluacion(new Date(i * 1000L));
+            evaluacion.setEvaluacionCompleta("{}");
+            evaluacion.setClaridadEstructura(i);
+            evaluacion.setDominioTecnico(2);
+            // Un criterio sin valor cuenta como 0
+            evaluacion.setPertinencia(i == 5 ? null : 4);
+            evaluacion.setComunicacionSeguridad(5);
+            evaluacion.setPorcentajeObtenido(10.0 * i);
+            evaluaciones.add(evaluacion);
+        }
+        evaluacionRepository.insertarEnLote(evaluaciones.subList(0, 3));
+        evaluacionRepository.insertarEnLote(evaluaciones.subList(3, 5));
+        entityManager.clear();
+
+        Postulacion acumulada = entityManager.find(Postulacion.class, postulacion.getId());
+        assertThat(acumulada.getTotalEvaluaciones()).isEqualTo(5);
+        assertThat(acumulada.getSumaClaridadEstructura()).isEqualTo(15);
+        assertThat(acumulada.getSumaDominioTecnico()).isEqualTo(10);
+        assertThat(acumulada.getSumaPertinencia()).isEqualTo(16);
+        assertThat(acumulada.getSumaComunicacionSeguridad()).isEqualTo(25);
+        assertThat(acumulada.getSumaPorcentajes()).isEqualTo(150.0);
+        assertThat(acumulada.getFechaUltimaEvaluacion()).hasTime(5000L);
+    }
+}
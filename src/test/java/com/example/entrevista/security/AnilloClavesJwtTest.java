@@ -0,0 +1,143 @@
+package com.example.entrevista.security;
+
+import com.example.entrevista.util.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Anillo de claves JWT: firma RS256 con kid, rotación sin invalidar tokens vigentes y migración desde HMAC.
+ */
+class AnilloClavesJwtTest {
+
+    private static final String SECRETO = "clave-de-prueba-de-al-menos-treinta-y-dos-bytes";
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void laRotacionMantieneValidosLosTokensDeLaClaveAnterior() throws Exception {
+        escribirPrivada("2026-01", generarPar());
+        AnilloClavesJwt anillo = new AnilloClavesJwt("", directorio.toString(), "", false);
+        JwtUtil jwtUtil = jwtUtil(anillo);
+        String anterior = jwtUtil.generateToken("ana@prueba.com", "USUARIO", 7L, "Ana", "Paz", null);
+
+        // Clave nueva: pasa a firmar la de kid mayor y la anterior sigue verificando
+        escribirPrivada("2026-02", generarPar());
+        anillo.recargar();
+        String nuevo = jwtUtil.generateToken("ana@prueba.com", "USUARIO", 7L, "Ana", "Paz", null);
+
+        assertThat(anillo.getKidActivo()).isEqualTo("2026-02");
+        assertThat(kid(nuevo)).isEqualTo("2026-02");
+        assertThat(jwtUtil.verificar(anterior).principal().getId()).isEqualTo(7L);
+        assertThat(jwtUtil.verificar(nuevo).rol()).isEqualTo("USUARIO");
+
+        // Retirada de la clave anterior
+        Files.delete(directorio.resolve("2026-01.key"));
+        anillo.recargar();
+
+        assertThatThrownBy(() -> jwtUtil.verificar(anterior)).isInstanceOf(UnsupportedJwtException.class);
+        assertThat(jwtUtil.verificar(nuevo).principal().getEmail()).isEqualTo("ana@prueba.com");
+    }
+
+    @Test
+    void unNodoSoloConLaClavePublicaVerificaLosTokensDeOtro() throws Exception {
+        KeyPair par = generarPar();
+        escribirPrivada("2026-01", par);
+        String token = jwtUtil(new AnilloClavesJwt("", directorio.toString(), "", false))
+            .generateToken("empresa@prueba.com", "EMPRESA", 3L, "Acme", null, null);
+
+        Path soloPublica = Files.createDirectory(directorio.resolve("verificador"));
+        Files.writeString(soloPublica.resolve("2026-01.pub"), pem("PUBLIC KEY", par.getPublic().getEncoded()));
+        AnilloClavesJwt verificador = new AnilloClavesJwt("", soloPublica.toString(), "", false);
+
+        assertThat(jwtUtil(verificador).verificar(token).principal().getNombre()).isEqualTo("Acme");
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> claves = (List<Map<String, Object>>) verificador.jwks().get("keys");
+        assertThat(claves).singleElement().satisfies(jwk -> {
+            assertThat(jwk).containsEntry("kid", "2026-01").containsEntry("alg", "RS256").containsEntry("e", "AQAB");
+        });
+    }
+
+    @Test
+    void losTokensHmacSoloSeAceptanDuranteLaMigracion() throws Exception {
+        escribirPrivada("2026-01", generarPar());
+        String hmac = Jwts.builder().setSubject("ana@prueba.com").setExpiration(new Date(System.currentTimeMillis() + 60_000))
+            .signWith(Keys.hmacShaKeyFor(SECRETO.getBytes()), SignatureAlgorithm.HS256).compact();
+
+        assertThat(jwtUtil(new AnilloClavesJwt(SECRETO, directorio.toString(), "", true)).extractUsername(hmac))
+            .isEqualTo("ana@prueba.com");
+        assertThatThrownBy(() -> jwtUtil(new AnilloClavesJwt(SECRETO, directorio.toString(), "", false)).extractUsername(hmac))
+            .isInstanceOf(UnsupportedJwtException.class);
+    }
+
+    @Test
+    void conDirectorioLosTokensHmacSeRechazanSalvoQueSeActiveLaMigracion() throws Exception {
+        escribirPrivada("2026-01", generarPar());
+        String hmac = Jwts.builder().setSubject("ana@prueba.com").setExpiration(new Date(System.currentTimeMillis() + 60_000))
+            .signWith(Keys.hmacShaKeyFor(SECRETO.getBytes()), SignatureAlgorithm.HS256).compact();
+        ApplicationContextRunner contexto = new ApplicationContextRunner()
+            .withPropertyValues("jwt.secret=" + SECRETO, "jwt.claves.directorio=" + directorio)
+            .withBean(AnilloClavesJwt.class);
+
+        contexto.run(ctx -> assertThatThrownBy(() -> jwtUtil(ctx.getBean(AnilloClavesJwt.class)).extractUsername(hmac))
+            .isInstanceOf(UnsupportedJwtException.class));
+        contexto.withPropertyValues("jwt.aceptar-hmac=true")
+            .run(ctx -> assertThat(jwtUtil(ctx.getBean(AnilloClavesJwt.class)).extractUsername(hmac)).isEqualTo("ana@prueba.com"));
+    }
+
+    @Test
+    void rechazaUnKidDelAnilloConAlgoritmoHmac() throws Exception {
+        escribirPrivada("2026-01", generarPar());
+        JwtUtil jwtUtil = jwtUtil(new AnilloClavesJwt(SECRETO, directorio.toString(), "", true));
+        String confundido = Jwts.builder().setHeaderParam("kid", "2026-01").setSubject("atacante@prueba.com")
+            .signWith(Keys.hmacShaKeyFor(SECRETO.getBytes()), SignatureAlgorithm.HS256).compact();
+
+        assertThatThrownBy(() -> jwtUtil.extractUsername(confundido)).isInstanceOf(UnsupportedJwtException.class);
+    }
+
+    private static JwtUtil jwtUtil(AnilloClavesJwt anillo) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "anilloClaves", anillo);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "inicializar");
+        return jwtUtil;
+    }
+
+    private static KeyPair generarPar() throws Exception {
+        KeyPairGenerator generador = KeyPairGenerator.getInstance("RSA");
+        generador.initialize(2048);
+        return generador.generateKeyPair();
+    }
+
+    private void escribirPrivada(String kid, KeyPair par) throws Exception {
+        Files.writeString(directorio.resolve(kid + ".key"), pem("PRIVATE KEY", par.getPrivate().getEncoded()));
+    }
+
+    private static String pem(String tipo, byte[] der) {
+        String base64 = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der);
+        return "-----BEGIN " + tipo + "-----\n" + base64 + "\n-----END " + tipo + "-----\n";
+    }
+
+    private static String kid(String token) {
+        String cabecera = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+        return cabecera.replaceAll(".*\"kid\":\"([^\"]+)\".*", "$1");
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.entrevista.security;
+
+import com.example.entrevista.util.JwtUtil;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Un token se verifica una sola vez; los tokens alterados nunca llegan a la caché.
+ */
+class CacheTokensJwtTest {
+
+    private JwtUtil jwtUtil;
+    private CacheTokensJwt cache;
+
+    @BeforeEach
+    void preparar() {
+        JwtUtil real = new JwtUtil();
+        ReflectionTestUtils.setField(real, "anilloClaves", new AnilloClavesJwt("clave-de-prueba-de-al-menos-treinta-y-dos-bytes", "", "", true));
+        ReflectionTestUtils.invokeMethod(real, "inicializar");
+        jwtUtil = spy(real);
+        cache = new CacheTokensJwt(jwtUtil, 100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void lasPeticionesRepetidasNoVuelvenAVerificarLaFirma() {
+        String token = jwtUtil.generateToken("candidato@prueba.com", "USUARIO", 7L, "Ana", "Pérez", null);
+
+        TokenJwtVerificado primero = cache.verificar(token);
+        TokenJwtVerificado segundo = cache.verificar(token);
+
+        assertThat(segundo).isSameAs(primero);
+        assertThat(segundo.rol()).isEqualTo("USUARIO");
+        assertThat(segundo.principal().getId()).isEqualTo(7L);
+        assertThat(segundo.principal().getUserType()).isEqualTo("USUARIO");
+        verify(jwtUtil, times(1)).verificar(token);
+    }
+
+    @Test
+    void unTokenAlteradoSeRechazaSiempre() {
+        String token = jwtUtil.generateToken("empresa@prueba.com", "EMPRESA");
+        String alterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> cache.verificar(alterado)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> cache.verificar(alterado)).isInstanceOf(JwtException.class);
+        verify(jwtUtil, times(2)).verificar(anyString());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.entrevista.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Límite de fallos por email y por IP antes de verificar contraseñas.
+ */
+class LimitadorIntentosLoginTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LimitadorIntentosLogin limitador =
+        new LimitadorIntentosLogin(3, 5, Duration.ofMinutes(15), 1000, meterRegistry);
+
+    @Test
+    void bloqueaElEmailTrasVariosFallosSinImportarMayusculas() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limitador.bloqueado("ana@prueba.com", "10.0.0." + i)).isFalse();
+            limitador.registrarFallo("Ana@Prueba.com ", "10.0.0." + i);
+        }
+
+        assertThat(limitador.bloqueado("ana@prueba.com", "10.0.0.9")).isTrue();
+        assertThat(limitador.bloqueado("otra@prueba.com", "10.0.0.9")).isFalse();
+        assertThat(meterRegistry.get("auth.login.bloqueados").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void bloqueaLaIpQueProbaDistintosEmails() {
+        for (int i = 0; i < 5; i++) {
+            limitador.registrarFallo("cuenta" + i + "@prueba.com", "10.0.0.1");
+        }
+
+        assertThat(limitador.bloqueado("nueva@prueba.com", "10.0.0.1")).isTrue();
+        assertThat(limitador.bloqueado("nueva@prueba.com", "10.0.0.2")).isFalse();
+    }
+
+    @Test
+    void sinLimitePorIpUnaIpCompartidaNoBloqueaAOtrasCuentas() {
+        LimitadorIntentosLogin sinLimiteIp = new LimitadorIntentosLogin(3, 0, Duration.ofMinutes(15), 1000, meterRegistry);
+        for (int i = 0; i < 50; i++) {
+            sinLimiteIp.registrarFallo("cuenta" + i + "@prueba.com", "10.0.0.1");
+        }
+
+        assertThat(sinLimiteIp.bloqueado("nueva@prueba.com", "10.0.0.1")).isFalse();
+    }
+
+    @Test
+    void unLoginCorrectoLimpiaLosFallosDelEmail() {
+        limitador.registrarFallo("ana@prueba.com", "10.0.0.1");
+        limitador.registrarFallo("ana@prueba.com", "10.0.0.1");
+        limitador.registrarExito("ana@prueba.com");
+        limitador.registrarFallo("ana@prueba.com", "10.0.0.1");
+
+        assertThat(limitador.bloqueado("ana@prueba.com", "10.0.0.2")).isFalse();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.entrevista.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pool acotado de verificación de contraseñas: backpressure con 429 y propagación de errores de autenticación.
+ */
+class VerificadorCredencialesTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private VerificadorCredenciales verificador;
+
+    @AfterEach
+    void detener() {
+        liberar.countDown();
+        if (verificador != null) {
+            verificador.detener();
+        }
+    }
+
+    @Test
+    void conElPoolYLaColaLlenosRechazaSinEsperar() throws Exception {
+        // Un hilo y una posición en cola; cada autenticación espera a que se libere el latch
+        verificador = new VerificadorCredenciales(credenciales -> {
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return credenciales;
+        }, 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        CompletableFuture<Authentication> enCurso = CompletableFuture.supplyAsync(() -> verificador.autenticar(credenciales()));
+        CompletableFuture<Authentication> enCola = CompletableFuture.supplyAsync(() -> verificador.autenticar(credenciales()));
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.hash.cola").gauge().value() < 1 && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+
+        assertThatThrownBy(() -> verificador.autenticar(credenciales())).isInstanceOf(LoginSaturadoException.class);
+        assertThat(meterRegistry.get("auth.hash.rechazados").counter().count()).isEqualTo(1);
+
+        liberar.countDown();
+        assertThat(enCurso.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(enCola.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(meterRegistry.get("auth.hash.espera").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void propagaLasCredencialesInvalidas() {
+        verificador = new VerificadorCredenciales(credenciales -> {
+            throw new BadCredentialsException("Credenciales inválidas");
+        }, 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        assertThatThrownBy(() -> verificador.autenticar(credenciales())).isInstanceOf(BadCredentialsException.class);
+    }
+
+    private static Authentication credenciales() {
+        return new UsernamePasswordAuthenticationToken("ana@prueba.com", "secreto");
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.entrevista.service;
+
+import com.example.entrevista.service.CacheResultadosService.Vista;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Caché de resultados: copias independientes, invalidación por postulación y ratio de aciertos.
+ */
+class CacheResultadosServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CacheResultadosService cache = new CacheResultadosService(100, Duration.ofMinutes(10), meterRegistry);
+    private final AtomicInteger calculos = new AtomicInteger();
+
+    @Test
+    void lasConsultasRepetidasNoRecalculanYRecibenCopias() {
+        Map<String, Object> primera = cache.obtener(1L, Vista.RESUMEN, resultado(true));
+        primera.put("tiempo_procesamiento_ms", 5L);
+        Map<String, Object> segunda = cache.obtener(1L, Vista.RESUMEN, resultado(true));
+
+        assertThat(calculos).hasValue(1);
+        assertThat(segunda).doesNotContainKey("tiempo_procesamiento_ms").containsEntry("calculo", 1);
+        assertThat(meterRegistry.get("resultados.cache.ratio_aciertos").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    void invalidarRecalculaResumenYDetalleDeEsaPostulacion() {
+        cache.obtener(1L, Vista.RESUMEN, resultado(true));
+        cache.obtener(1L, Vista.DETALLE, resultado(true));
+        cache.obtener(2L, Vista.RESUMEN, resultado(true));
+
+        cache.invalidar(1L);
+
+        assertThat(cache.obtener(1L, Vista.RESUMEN, resultado(true))).containsEntry("calculo", 4);
+        assertThat(cache.obtener(1L, Vista.DETALLE, resultado(true))).containsEntry("calculo", 5);
+        assertThat(cache.obtener(2L, Vista.RESUMEN, resultado(true))).containsEntry("calculo", 3);
+    }
+
+    @Test
+    void losErroresNoSeGuardan() {
+        assertThat(cache.obtener(1L, Vista.RESUMEN, resultado(false))).containsEntry("success", false);
+        assertThat(cache.obtener(1L, Vista.RESUMEN, resultado(true))).containsEntry("success", true);
+        assertThat(calculos).hasValue(2);
+    }
+
+    private Supplier<Map<String, Object>> resultado(boolean exito) {
+        return () -> {
+            Map<String, Object> resultado = new HashMap<>();
+            resultado.put("success", exito);
+            resultado.put("calculo", calculos.incrementAndGet());
+            return resultado;
+        };
+    }
+}
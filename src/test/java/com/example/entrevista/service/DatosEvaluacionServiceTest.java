@@ -0,0 +1,127 @@
+package com.example.entrevista.service;
+
+import com.example.entrevista.DatosDePrueba;
+import com.example.entrevista.model.Postulacion;
+import com.example.entrevista.model.Pregunta;
+import com.example.entrevista.repository.EvaluacionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica con las estadísticas de Hibernate que obtenerDatosCompletos carga todo en una sola consulta
+ * y que la comprobación de resultados no carga preguntas ni evaluaciones.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(DatosEvaluacionService.class)
+class DatosEvaluacionServiceTest {
+
+    @Autowired
+    private DatosEvaluacionService datosEvaluacionService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EvaluacionRepository evaluacionRepository;
+
+    private Statistics estadisticas;
+    private Postulacion postulacion;
+    private final List<Pregunta> preguntas = new ArrayList<>();
+
+    @BeforeEach
+    void prepararDatos() {
+        postulacion = DatosDePrueba.postulacion(entityManager);
+        for (int numero = 1; numero <= 3; numero++) {
+            Pregunta pregunta = DatosDePrueba.pregunta(postulacion, numero);
+            entityManager.persist(pregunta);
+            preguntas.add(pregunta);
+        }
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void cargaPostulacionPreguntasYEvaluacionesEnUnaSolaConsulta() {
+        evaluar(preguntas.get(0), postulacion);
+        evaluar(preguntas.get(1), postulacion);
+        limpiarContexto();
+
+        DatosEvaluacionService.DatosPostulacion datos = datosEvaluacionService.obtenerDatosCompletos(postulacion.getId());
+
+        assertThat(datos.getPostulacion().getConvocatoria().getEmpresa().getNombre()).isEqualTo("Empresa prueba");
+        assertThat(datos.getTotalPreguntas()).isEqualTo(3);
+        assertThat(datos.getTotalEvaluaciones()).isEqualTo(2);
+        assertThat(datos.getEvaluacionParaPregunta(preguntas.get(0).getId())).isNotNull();
+        assertThat(datos.getEvaluacionParaPregunta(preguntas.get(2).getId())).isNull();
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void incluyeEvaluacionesSinPreguntaCorrespondiente() {
+        evaluar(preguntas.get(0), postulacion);
+        evaluar(null, postulacion);
+        limpiarContexto();
+
+        DatosEvaluacionService.DatosPostulacion datos = datosEvaluacionService.obtenerDatosCompletos(postulacion.getId());
+
+        assertThat(datos.getTotalEvaluaciones()).isEqualTo(2);
+        assertThat(datos.isDatosCompletos()).isFalse();
+    }
+
+    @Test
+    void postulacionInexistente() {
+        limpiarContexto();
+
+        DatosEvaluacionService.DatosPostulacion datos = datosEvaluacionService.obtenerDatosCompletos(-1L);
+
+        assertThat(datos.getPostulacion()).isNull();
+        assertThat(datos.getProblemasDetectados()).containsExactly("Postulación no encontrada");
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void decideSiHayResultadosSoloConConteos() {
+        evaluacionRepository.insertarEnLote(List.of(DatosDePrueba.evaluacion(preguntas.get(0), postulacion),
+                                                    DatosDePrueba.evaluacion(preguntas.get(1), postulacion)));
+        limpiarContexto();
+
+        assertThat(datosEvaluacionService.puedeGenerarResultados(postulacion.getId())).isFalse();
+
+        evaluacionRepository.insertarEnLote(List.of(DatosDePrueba.evaluacion(preguntas.get(2), postulacion)));
+        limpiarContexto();
+
+        assertThat(datosEvaluacionService.obtenerEstadisticasRapidas(postulacion.getId()))
+            .containsEntry("total_evaluaciones", 3L)
+            .containsEntry("evaluaciones_completas", 3L)
+            .containsEntry("puede_generar_resultados", true);
+        // Solo se carga la fila de la postulación; preguntas y evaluaciones se cuentan en la base de datos
+        assertThat(estadisticas.getEntityLoadCount()).isEqualTo(1);
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    private void evaluar(Pregunta pregunta, Postulacion postulacion) {
+        entityManager.persist(DatosDePrueba.evaluacion(pregunta, postulacion));
+    }
+
+    // Vacía el contexto de persistencia y reinicia las estadísticas para contar solo la carga
+    private void limpiarContexto() {
+        entityManager.flush();
+        entityManager.clear();
+        estadisticas.clear();
+    }
+}
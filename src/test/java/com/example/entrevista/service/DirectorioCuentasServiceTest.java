@@ -0,0 +1,87 @@
+package com.example.entrevista.service;
+
+import com.example.entrevista.repository.CredencialesCuenta;
+import com.example.entrevista.repository.UsuarioRepository;
+import com.example.entrevista.service.DirectorioCuentasService.Cuenta;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Directorio de cuentas: una consulta por email, prioridad del usuario e invalidación en escrituras.
+ */
+class DirectorioCuentasServiceTest {
+
+    private final UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+    private final DirectorioCuentasService directorio =
+        new DirectorioCuentasService(usuarioRepository, 100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+
+    @Test
+    void devuelveLosDatosDelTokenConUnaSolaConsulta() {
+        CredencialesCuenta ana = credenciales("USUARIO", 7L, "ana@prueba.com", null, "Ana", "Paz", "Rojas");
+        when(usuarioRepository.findCredencialesByEmail("ana@prueba.com")).thenReturn(List.of(ana));
+
+        Cuenta cuenta = directorio.buscar("ana@prueba.com");
+        directorio.buscar("ana@prueba.com");
+
+        assertThat(cuenta.id()).isEqualTo(7L);
+        assertThat(cuenta.nombre()).isEqualTo("Ana");
+        assertThat(cuenta.apellidoPaterno()).isEqualTo("Paz");
+        assertThat(cuenta.autoridad()).isEqualTo("ROLE_USUARIO");
+        assertThat(cuenta.toString()).doesNotContain("hash");
+        verify(usuarioRepository, times(1)).findCredencialesByEmail("ana@prueba.com");
+    }
+
+    @Test
+    void conElEmailEnAmbasTablasTienePrioridadElUsuario() {
+        CredencialesCuenta empresa = credenciales("EMPRESA", 3L, "comun@prueba.com", "EMPRESA", "Acme", null, null);
+        CredencialesCuenta usuario = credenciales("USUARIO", 9L, "comun@prueba.com", "USUARIO", "Luis", "Soto", null);
+        when(usuarioRepository.findCredencialesByEmail("comun@prueba.com")).thenReturn(List.of(empresa, usuario));
+
+        Cuenta cuenta = directorio.buscar("comun@prueba.com");
+
+        assertThat(cuenta.esUsuario()).isTrue();
+        assertThat(cuenta.id()).isEqualTo(9L);
+    }
+
+    @Test
+    void noGuardaEmailsInexistentesYRecargaTrasInvalidar() {
+        when(usuarioRepository.findCredencialesByEmail("nueva@prueba.com")).thenReturn(List.of());
+
+        assertThat(directorio.buscar("nueva@prueba.com")).isNull();
+
+        // Alta de la empresa: el siguiente login ya la encuentra
+        CredencialesCuenta alta = credenciales("EMPRESA", 4L, "nueva@prueba.com", "EMPRESA", "Nueva", null, null);
+        when(usuarioRepository.findCredencialesByEmail("nueva@prueba.com")).thenReturn(List.of(alta));
+        assertThat(directorio.buscar("nueva@prueba.com").nombre()).isEqualTo("Nueva");
+
+        CredencialesCuenta renombrada = credenciales("EMPRESA", 4L, "nueva@prueba.com", "EMPRESA", "Nueva SA", null, null);
+        when(usuarioRepository.findCredencialesByEmail("nueva@prueba.com")).thenReturn(List.of(renombrada));
+        directorio.invalidar("nueva@prueba.com");
+
+        assertThat(directorio.buscar("nueva@prueba.com").nombre()).isEqualTo("Nueva SA");
+        verify(usuarioRepository, times(3)).findCredencialesByEmail("nueva@prueba.com");
+    }
+
+    private static CredencialesCuenta credenciales(String tipo, Long id, String email, String rol,
+                                                   String nombre, String apellidoPaterno, String apellidoMaterno) {
+        CredencialesCuenta c = mock(CredencialesCuenta.class);
+        when(c.getTipo()).thenReturn(tipo);
+        when(c.getId()).thenReturn(id);
+        when(c.getEmail()).thenReturn(email);
+        when(c.getPassword()).thenReturn("hash");
+        when(c.getRol()).thenReturn(rol);
+        when(c.getNombre()).thenReturn(nombre);
+        when(c.getApellidoPaterno()).thenReturn(apellidoPaterno);
+        when(c.getApellidoMaterno()).thenReturn(apellidoMaterno);
+        return c;
+    }
+}
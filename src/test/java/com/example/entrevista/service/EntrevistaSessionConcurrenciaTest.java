@@ -0,0 +1,123 @@
+package com.example.entrevista.service;
+
+import com.example.entrevista.model.EntrevistaSession;
+import com.example.entrevista.model.Evaluacion;
+import com.example.entrevista.model.Postulacion;
+import com.example.entrevista.model.Pregunta;
+import com.example.entrevista.model.TipoEventoSesion;
+import com.example.entrevista.repository.EntrevistaSessionRepository;
+import com.example.entrevista.repository.EventoSesionRepository;
+import com.example.entrevista.repository.PostulacionRepository;
+import com.example.entrevista.util.ReintentoConcurrencia;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Escrituras concurrentes sobre la misma sesión: ninguna evaluación se pierde aunque choquen
+ * con actualizaciones de progreso que guardan la entidad completa (@Version + reintento).
+ */
+@DataJpaTest(properties = "app.concurrencia.max-intentos=50")
+@Import({EntrevistaSessionService.class, ReintentoConcurrencia.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EntrevistaSessionConcurrenciaTest {
+
+    private static final int ESCRITORES = 64;
+    private static final int EVALUACIONES = 48;
+
+    @Autowired
+    private EntrevistaSessionService entrevistaSessionService;
+
+    @Autowired
+    private EntrevistaSessionRepository entrevistaSessionRepository;
+
+    @Autowired
+    private EventoSesionRepository eventoSesionRepository;
+
+    @Autowired
+    private PostulacionRepository postulacionRepository;
+
+    private Postulacion postulacion;
+    private EntrevistaSession sesion;
+
+    @BeforeEach
+    void prepararDatos() {
+        postulacion = postulacionRepository.save(new Postulacion());
+        sesion = entrevistaSessionRepository.save(new EntrevistaSession(postulacion));
+    }
+
+    @AfterEach
+    void limpiarDatos() {
+        eventoSesionRepository.deleteAll(eventoSesionRepository.findBySessionIdAndTipoOrderByIdAsc(sesion.getId(), TipoEventoSesion.EVALUACION));
+        entrevistaSessionRepository.deleteById(sesion.getId());
+        postulacionRepository.deleteById(postulacion.getId());
+    }
+
+    @Test
+    void ningunaEvaluacionSePierdeConEscritoresConcurrentes() throws Exception {
+        Long sessionId = sesion.getId();
+        Long versionInicial = sesion.getVersion();
+        CountDownLatch salida = new CountDownLatch(1);
+        Queue<Throwable> fallos = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(ESCRITORES);
+        List<Future<?>> tareas = new ArrayList<>();
+        try {
+            for (int i = 0; i < ESCRITORES; i++) {
+                long preguntaId = i + 1;
+                Runnable escritura = i < EVALUACIONES
+                    ? () -> entrevistaSessionService.agregarEvaluacion(sessionId, evaluacion(preguntaId, preguntaId))
+                    // Guardan la entidad completa: sin @Version pisarían los totales de las evaluaciones
+                    : () -> entrevistaSessionService.actualizarProgreso(sessionId, 50);
+                tareas.add(executor.submit(() -> {
+                    try {
+                        salida.await();
+                        escritura.run();
+                    } catch (Throwable e) {
+                        fallos.add(e);
+                    }
+                }));
+            }
+            salida.countDown();
+            for (Future<?> tarea : tareas) {
+                tarea.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(fallos).isEmpty();
+        EntrevistaSession resultado = entrevistaSessionRepository.findById(sessionId).orElseThrow();
+        assertThat(resultado.getTotalEvaluaciones()).isEqualTo(EVALUACIONES);
+        assertThat(resultado.getSumaPorcentajes()).isEqualTo(EVALUACIONES * (EVALUACIONES + 1) / 2.0);
+        assertThat(resultado.getVersion()).isGreaterThanOrEqualTo(versionInicial + EVALUACIONES);
+        assertThat(eventoSesionRepository.findBySessionIdAndTipoOrderByIdAsc(sessionId, TipoEventoSesion.EVALUACION))
+            .hasSize(EVALUACIONES);
+    }
+
+    private static Evaluacion evaluacion(Long preguntaId, double porcentaje) {
+        Pregunta pregunta = new Pregunta();
+        pregunta.setId(preguntaId);
+        Evaluacion evaluacion = new Evaluacion();
+        evaluacion.setPregunta(pregunta);
+        evaluacion.setPorcentajeObtenido(porcentaje);
+        evaluacion.setEvaluacionCompleta("{}");
+        return evaluacion;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.entrevista.service;
+
+import com.example.entrevista.model.EntrevistaSession;
+import com.example.entrevista.model.Evaluacion;
+import com.example.entrevista.model.Postulacion;
+import com.example.entrevista.model.Pregunta;
+import com.example.entrevista.model.TipoEventoSesion;
+import com.example.entrevista.repository.EventoSesionRepository;
+import com.example.entrevista.util.ReintentoConcurrencia;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.InstanceOfAssertFactories.MAP;
+
+/**
+ * Respuestas y evaluaciones como eventos de solo inserción con el snapshot de la sesión mantenido por UPDATE atómicos.
+ */
+@DataJpaTest
+@Import({EntrevistaSessionService.class, ReintentoConcurrencia.class})
+class EntrevistaSessionServiceTest {
+
+    @Autowired
+    private EntrevistaSessionService entrevistaSessionService;
+
+    @Autowired
+    private EventoSesionRepository eventoSesionRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private EntrevistaSession sesion;
+
+    @BeforeEach
+    void prepararDatos() {
+        Postulacion postulacion = new Postulacion();
+        entityManager.persist(postulacion);
+        sesion = entityManager.persistFlushFind(new EntrevistaSession(postulacion));
+    }
+
+    @Test
+    void cadaEvaluacionEsUnEventoYActualizaElSnapshot() {
+        entrevistaSessionService.agregarEvaluacion(sesion.getId(), evaluacion(1L, 80.0));
+        entrevistaSessionService.agregarEvaluacion(sesion.getId(), evaluacion(2L, 60.0));
+        // Reevaluar la misma pregunta reemplaza a la anterior en el snapshot
+        EntrevistaSession actualizada = entrevistaSessionService.agregarEvaluacion(sesion.getId(), evaluacion(1L, 40.0));
+
+        assertThat(eventoSesionRepository.findBySessionIdAndTipoOrderByIdAsc(sesion.getId(), TipoEventoSesion.EVALUACION)).hasSize(3);
+        assertThat(actualizada.getTotalEvaluaciones()).isEqualTo(2);
+        assertThat(actualizada.getSumaPorcentajes()).isEqualTo(100.0);
+        assertThat(actualizada.getProgresoCompletado()).isEqualTo(20);
+        assertThat(actualizada.getEvaluacionesJson()).isNull();
+
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> evaluaciones = (Map<String, Map<String, Object>>)
+            entrevistaSessionService.obtenerResultadosCompletos(sesion.getId()).get("evaluaciones");
+        assertThat(evaluaciones).containsOnlyKeys("pregunta_1", "pregunta_2");
+        assertThat(evaluaciones.get("pregunta_1")).containsEntry("porcentaje_obtenido", 40.0);
+    }
+
+    @Test
+    void laDecimaEvaluacionCompletaLaSesion() {
+        EntrevistaSession actualizada = null;
+        for (long preguntaId = 1; preguntaId <= 10; preguntaId++) {
+            actualizada = entrevistaSessionService.agregarEvaluacion(sesion.getId(), evaluacion(preguntaId, 50.0));
+        }
+
+        assertThat(actualizada.getEsCompletada()).isTrue();
+        assertThat(actualizada.getProgresoCompletado()).isEqualTo(100);
+        assertThat(actualizada.getPuntuacionTotal()).isEqualTo(50.0);
+        assertThat(entrevistaSessionService.obtenerResumenResultados(sesion.getId()))
+            .containsEntry("total_preguntas", 10)
+            .containsEntry("promedio_general", 50.0);
+    }
+
+    @Test
+    void unaSesionConJsonAntiguoSeMigraAEventos() {
+        sesion.setEvaluacionesJson("{\"pregunta_1\":{\"pregunta_id\":1,\"porcentaje_obtenido\":70.0,\"timestamp\":\"2024-01-01T10:00\"}}");
+        sesion.setRespuestasJson("{\"pregunta_1\":{\"pregunta_id\":1,\"respuesta\":\"Hola\",\"timestamp\":\"2024-01-01T09:59\"}}");
+        entityManager.merge(sesion);
+        entityManager.flush();
+
+        EntrevistaSession actualizada = entrevistaSessionService.agregarEvaluacion(sesion.getId(), evaluacion(2L, 30.0));
+
+        assertThat(actualizada.getEvaluacionesJson()).isNull();
+        assertThat(actualizada.getRespuestasJson()).isNull();
+        assertThat(actualizada.getTotalRespuestas()).isEqualTo(1);
+        assertThat(actualizada.getTotalEvaluaciones()).isEqualTo(2);
+        assertThat(actualizada.getSumaPorcentajes()).isEqualTo(100.0);
+        assertThat(entrevistaSessionService.obtenerResultadosCompletos(sesion.getId()).get("respuestas"))
+            .asInstanceOf(MAP)
+            .containsOnlyKeys("pregunta_1");
+    }
+
+    private static Evaluacion evaluacion(Long preguntaId, double porcentaje) {
+        Pregunta pregunta = new Pregunta();
+        pregunta.setId(preguntaId);
+        Evaluacion evaluacion = new Evaluacion();
+        evaluacion.setPregunta(pregunta);
+        evaluacion.setPorcentajeObtenido(porcentaje);
+        evaluacion.setEvaluacionCompleta("{}");
+        return evaluacion;
+    }
+}
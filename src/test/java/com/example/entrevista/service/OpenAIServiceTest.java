@@ -0,0 +1,144 @@
+package com.example.entrevista.service;
+
+import com.example.entrevista.util.CircuitBreaker;
+import com.example.entrevista.util.PlanificadorLlm;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifica reintentos, deadline y circuit breaker del cliente del LLM contra un servidor HTTP local.
+ */
+class OpenAIServiceTest {
+
+    private static final String RESPUESTA_OK = "{\"choices\":[{\"message\":{\"role\":\"assistant\",\"content\":\"ok\"}}]}";
+
+    private HttpServer servidor;
+    private final AtomicInteger llamadas = new AtomicInteger();
+    private final ConcurrentLinkedDeque<RespuestaStub> respuestas = new ConcurrentLinkedDeque<>();
+
+    private record RespuestaStub(int status, Map<String, String> headers, String cuerpo, long demoraMs) {
+        static RespuestaStub de(int status, String cuerpo) {
+            return new RespuestaStub(status, Map.of("Content-Type", "application/json"), cuerpo, 0);
+        }
+    }
+
+    @BeforeEach
+    void iniciarServidor() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidor.createContext("/chat/completions", intercambio -> {
+            llamadas.incrementAndGet();
+            intercambio.getRequestBody().readAllBytes();
+            RespuestaStub respuesta = respuestas.isEmpty() ? RespuestaStub.de(200, RESPUESTA_OK) : respuestas.poll();
+            try {
+                Thread.sleep(respuesta.demoraMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] cuerpo = respuesta.cuerpo().getBytes(StandardCharsets.UTF_8);
+            respuesta.headers().forEach((nombre, valor) -> intercambio.getResponseHeaders().add(nombre, valor));
+            intercambio.sendResponseHeaders(respuesta.status(), cuerpo.length == 0 ? -1 : cuerpo.length);
+            if (cuerpo.length > 0) {
+                intercambio.getResponseBody().write(cuerpo);
+            }
+            intercambio.close();
+        });
+        servidor.start();
+    }
+
+    @AfterEach
+    void detenerServidor() {
+        servidor.stop(0);
+    }
+
+    private OpenAIService crearServicio(int maxReintentos, int umbralFallos, Duration deadline) {
+        WebClient webClient = WebClient.builder()
+            .baseUrl("http://localhost:" + servidor.getAddress().getPort())
+            .build();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PlanificadorLlm planificador = new PlanificadorLlm("openai", 4, 1000, 1_000_000, meterRegistry);
+        return new OpenAIService(webClient, planificador, meterRegistry,
+            "clave-prueba", "gpt-3.5-turbo", deadline, deadline,
+            maxReintentos, Duration.ofMillis(10), Duration.ofMillis(200),
+            umbralFallos, Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    void reintentaAnte429RespetandoRetryAfter() {
+        respuestas.add(new RespuestaStub(429, Map.of("Retry-After", "0"), "", 0));
+        respuestas.add(RespuestaStub.de(503, "{}"));
+        OpenAIService servicio = crearServicio(3, 10, Duration.ofSeconds(5));
+
+        Map<String, Object> respuesta = servicio.completar("prompt").block();
+
+        assertThat(respuesta).containsKey("choices");
+        assertThat(llamadas.get()).isEqualTo(3);
+    }
+
+    @Test
+    void noReintentaErroresDelCliente() {
+        respuestas.add(RespuestaStub.de(400, "{\"error\":\"bad request\"}"));
+        OpenAIService servicio = crearServicio(3, 10, Duration.ofSeconds(5));
+
+        assertThatThrownBy(() -> servicio.completar("prompt").block())
+            .isInstanceOf(WebClientResponseException.BadRequest.class);
+        assertThat(llamadas.get()).isEqualTo(1);
+        assertThat(servicio.getEstadoCircuito()).isEqualTo(CircuitBreaker.Estado.CERRADO);
+    }
+
+    @Test
+    void aplicaDeadlinePorLlamada() {
+        respuestas.add(new RespuestaStub(200, Map.of("Content-Type", "application/json"), RESPUESTA_OK, 1000));
+        OpenAIService servicio = crearServicio(0, 10, Duration.ofMillis(200));
+
+        assertThatThrownBy(() -> servicio.completar("prompt").block())
+            .satisfies(e -> assertThat(Exceptions.unwrap(e)).isInstanceOf(TimeoutException.class));
+    }
+
+    @Test
+    void abreElCircuitoTrasFallosConsecutivosYFallaRapido() {
+        respuestas.add(RespuestaStub.de(500, "{}"));
+        respuestas.add(RespuestaStub.de(500, "{}"));
+        OpenAIService servicio = crearServicio(0, 2, Duration.ofSeconds(5));
+
+        assertThatThrownBy(() -> servicio.completar("prompt").block()).isInstanceOf(WebClientResponseException.class);
+        assertThatThrownBy(() -> servicio.completar("prompt").block()).isInstanceOf(WebClientResponseException.class);
+        assertThat(servicio.getEstadoCircuito()).isEqualTo(CircuitBreaker.Estado.ABIERTO);
+
+        assertThatThrownBy(() -> servicio.completar("prompt").block())
+            .isInstanceOf(CircuitBreaker.CircuitoAbiertoException.class);
+        assertThat(llamadas.get()).isEqualTo(2);
+    }
+
+    @Test
+    void emiteLosFragmentosDelStream() {
+        String stream = "data: {\"choices\":[{\"delta\":{\"role\":\"assistant\"}}]}\n\n"
+            + "data: {\"choices\":[{\"delta\":{\"content\":\"[{\\\"a\\\":\"}}]}\n\n"
+            + "data: {\"choices\":[{\"delta\":{\"content\":\"1}]\"}}]}\n\n"
+            + "data: [DONE]\n\n";
+        respuestas.add(new RespuestaStub(200, Map.of("Content-Type", "text/event-stream"), stream, 0));
+        OpenAIService servicio = crearServicio(0, 10, Duration.ofSeconds(5));
+
+        List<String> fragmentos = servicio.completarEnStreaming("prompt").collectList().block();
+
+        assertThat(fragmentos).containsExactly("[{\"a\":", "1}]");
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.entrevista.util;
+
+import com.example.entrevista.util.PlanificadorLlm.Prioridad;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica el orden por prioridad y los token buckets del planificador de llamadas al LLM.
+ */
+class PlanificadorLlmTest {
+
+    @Test
+    void lasLlamadasInteractivasPasanAntesQueLasDeSegundoPlano() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PlanificadorLlm planificador = new PlanificadorLlm("prueba", 1, 1000, 1_000_000, meterRegistry);
+        List<String> orden = new CopyOnWriteArrayList<>();
+        Sinks.Empty<Void> bloqueo = Sinks.empty();
+
+        // Ocupa el único cupo hasta que se libere el bloqueo
+        planificador.ejecutar(Prioridad.INTERACTIVA, 1, permiso -> bloqueo.asMono().then(Mono.just("ocupada"))).subscribe();
+        planificador.ejecutar(Prioridad.SEGUNDO_PLANO, 1, permiso -> Mono.fromCallable(() -> orden.add("fondo"))).subscribe();
+        planificador.ejecutar(Prioridad.INTERACTIVA, 1, permiso -> Mono.fromCallable(() -> orden.add("usuario"))).subscribe();
+
+        assertThat(planificador.profundidad(Prioridad.SEGUNDO_PLANO)).isEqualTo(1);
+        assertThat(planificador.profundidad(Prioridad.INTERACTIVA)).isEqualTo(1);
+        assertThat(meterRegistry.get("llm.planificador.cola").tag("prioridad", "segundo_plano").gauge().value()).isEqualTo(1.0);
+
+        bloqueo.tryEmitEmpty();
+
+        assertThat(orden).containsExactly("usuario", "fondo");
+        assertThat(planificador.getEnCurso()).isZero();
+        assertThat(meterRegistry.get("llm.planificador.espera").tag("prioridad", "interactiva").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void esperaAQueSeRelleneElBucketDePeticiones() {
+        // 600 peticiones por minuto: una cada 100 ms una vez agotada la ráfaga inicial
+        PlanificadorLlm planificador = new PlanificadorLlm("prueba", 10, 600, 1_000_000, new SimpleMeterRegistry());
+        for (int i = 0; i < 600; i++) {
+            planificador.ejecutar(Prioridad.INTERACTIVA, 1, permiso -> Mono.just("ok")).block();
+        }
+
+        long inicio = System.nanoTime();
+        String resultado = planificador.ejecutar(Prioridad.INTERACTIVA, 1, permiso -> Mono.just("ok"))
+            .block(Duration.ofSeconds(5));
+
+        assertThat(resultado).isEqualTo("ok");
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+    }
+
+    @Test
+    void laCancelacionEnColaNoConsumeCupo() {
+        PlanificadorLlm planificador = new PlanificadorLlm("prueba", 1, 1000, 1_000_000, new SimpleMeterRegistry());
+        Sinks.Empty<Void> bloqueo = Sinks.empty();
+
+        planificador.ejecutar(Prioridad.INTERACTIVA, 1, permiso -> bloqueo.asMono().then(Mono.just("ocupada"))).subscribe();
+        planificador.ejecutar(Prioridad.SEGUNDO_PLANO, 1, permiso -> Mono.just("cancelada")).subscribe().dispose();
+
+        assertThat(planificador.profundidad(Prioridad.SEGUNDO_PLANO)).isZero();
+
+        bloqueo.tryEmitEmpty();
+
+        assertThat(planificador.getEnCurso()).isZero();
+        assertThat(planificador.ejecutar(Prioridad.SEGUNDO_PLANO, 1, permiso -> Mono.just("ok")).block(Duration.ofSeconds(1)))
+            .isEqualTo("ok");
+    }
+}